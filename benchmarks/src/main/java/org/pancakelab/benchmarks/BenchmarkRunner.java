@@ -0,0 +1,32 @@
+package org.pancakelab.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the suites once per thread count with the GC profiler attached, so every result carries
+// its allocation rate (gc.alloc.rate.norm is bytes per operation). Usage:
+//   java -jar target/benchmarks.jar [benchmark regex] [thread counts, e.g. 1,8,64]
+// For single runs or other profilers use JMH's own launcher: java -cp target/benchmarks.jar org.openjdk.jmh.Main
+public class BenchmarkRunner {
+
+  private static final String DEFAULT_INCLUDE = "PancakeServiceBenchmark|EntityLockManagerBenchmark|IdGeneratorBenchmark";
+  private static final String DEFAULT_THREADS = "1,8,64";
+
+  public static void main(String[] args) throws RunnerException {
+    String include = args.length > 0 ? args[0] : DEFAULT_INCLUDE;
+    String threadCounts = args.length > 1 ? args[1] : DEFAULT_THREADS;
+    for (String threads : threadCounts.split(",")) {
+      ChainedOptionsBuilder options = new OptionsBuilder()
+          .include(include)
+          .threads(Integer.parseInt(threads.trim()))
+          .addProfiler(GCProfiler.class)
+          .resultFormat(ResultFormatType.JSON)
+          .result("target/jmh-" + threads.trim() + "-threads.json");
+      new Runner(options.build()).run();
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package org.pancakelab.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.OrderLog;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.PreparationQueue;
+import org.pancakelab.service.log.OverflowPolicy;
+import org.pancakelab.service.log.RecentLinesSink;
+import org.pancakelab.service.metrics.ServiceMetrics;
+import org.pancakelab.util.EntityLockManager;
+import org.pancakelab.util.TimeOrderedIdGenerator;
+import org.pancakelab.util.VirtualThreads;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Client pipelines per second with 100k clients submitted at once. "perTask" gives every client
+// its own virtual thread on a Java 21+ runtime; on the Java 17 target VirtualThreads falls back to
+// a platform pool, so there both executors are pools and the figure is only a baseline. "pool" is
+// a fixed pool of 64 platform threads for comparison.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(1)
+@State(Scope.Benchmark)
+public class ConcurrentClientsBenchmark {
+
+  private static final int CLIENTS = 100_000;
+  private static final Pancake.Ingredient[] INGREDIENTS = Pancake.Ingredient.values();
+
+  @Param({"perTask", "pool"})
+  public String executor;
+
+  private PancakeService service;
+
+  @Setup(Level.Trial)
+  public void open() {
+    service = new PancakeService(
+        new AddressValidator(),
+        new PancakeValidator(),
+        new OrderRepository(),
+        new PancakeRepository(),
+        new OrderLog(new RecentLinesSink(16), 1 << 16, OverflowPolicy.Drop),
+        EntityLockManager.striped(1024),
+        EntityLockManager.striped(1024),
+        new TimeOrderedIdGenerator(),
+        new PreparationQueue(),
+        ServiceMetrics.enabled());
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    service.close();
+  }
+
+  // One operation is one client going from an empty order to a delivered pancake.
+  @Benchmark
+  @OperationsPerInvocation(CLIENTS)
+  public int clients() throws InterruptedException, ExecutionException {
+    ExecutorService clients = executor.equals("perTask")
+        ? VirtualThreads.newThreadPerTaskExecutor()
+        : Executors.newFixedThreadPool(64);
+    int delivered = 0;
+    try {
+      List<Future<Integer>> deliveries = new ArrayList<>(CLIENTS);
+      for (int i = 0; i < CLIENTS; i++) {
+        int client = i;
+        deliveries.add(clients.submit(() -> {
+          UUID orderId = service.startOrder(Shop.address(client));
+          UUID pancakeId = service.addPancake(orderId);
+          service.addIngredient(pancakeId, INGREDIENTS[client % INGREDIENTS.length]);
+          service.completeOrder(orderId);
+          service.prepareOrder(orderId);
+          return service.deliverOrder(orderId).getPancakes().size();
+        }));
+      }
+      for (Future<Integer> delivery : deliveries) {
+        delivered += delivery.get();
+      }
+    } finally {
+      clients.shutdown();
+    }
+    return delivered;
+  }
+}
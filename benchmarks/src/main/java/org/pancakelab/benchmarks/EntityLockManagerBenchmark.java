@@ -0,0 +1,69 @@
+package org.pancakelab.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.util.EntityLockManager;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Contention is set by how many distinct keys the threads spread over: 1 key means every call
+// queues on the same lock, 65536 keys means collisions only happen through shared stripes.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityLockManagerBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Locks {
+    @Param({"perKey", "striped"})
+    public String locks;
+
+    @Param({"1", "64", "65536"})
+    public int keys;
+
+    @Param({"0", "50"})
+    public int work;
+
+    EntityLockManager<UUID> lockManager;
+    UUID[] keySpace;
+
+    @Setup(Level.Trial)
+    public void open() {
+      lockManager = Shop.lockManager(locks);
+      keySpace = new UUID[keys];
+      for (int i = 0; i < keys; i++) {
+        keySpace[i] = UUID.randomUUID();
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    int next = ThreadLocalRandom.current().nextInt(1 << 16);
+  }
+
+  @Benchmark
+  public UUID withLock(Locks locks, Cursor cursor) throws OrderUpdateException {
+    UUID key = locks.keySpace[cursor.next++ & (locks.keys - 1)];
+    return locks.lockManager.withLock(key, k -> {
+      Blackhole.consumeCPU(locks.work);
+      return k;
+    });
+  }
+}
@@ -0,0 +1,83 @@
+package org.pancakelab.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.model.Address;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.OrderLog;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.Result;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// What a miss costs: preparing an order that is still pending, or one that doesn't exist, through
+// the throwing API and through the result API. Run with the GC profiler to see the allocation gap,
+// e.g. java -jar target/benchmarks.jar FailurePathBenchmark 1
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FailurePathBenchmark {
+
+  PancakeService service;
+  UUID pendingOrder;
+  UUID missingOrder;
+
+  @Setup(Level.Trial)
+  public void open() {
+    service = new PancakeService(new AddressValidator(), new PancakeValidator(), new OrderRepository(),
+        new PancakeRepository(), new OrderLog());
+    pendingOrder = service.startOrder(new Address(1, 1));
+    missingOrder = UUID.randomUUID();
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    service.close();
+  }
+
+  @Benchmark
+  public Object wrongStatusThrown() {
+    try {
+      return service.prepareOrder(pendingOrder);
+    } catch (OrderUpdateException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Result<UUID> wrongStatusResult() {
+    return service.tryPrepareOrder(pendingOrder);
+  }
+
+  @Benchmark
+  public Object missingOrderThrown() {
+    try {
+      return service.prepareOrder(missingOrder);
+    } catch (OrderUpdateException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Result<UUID> missingOrderResult() {
+    return service.tryPrepareOrder(missingOrder);
+  }
+}
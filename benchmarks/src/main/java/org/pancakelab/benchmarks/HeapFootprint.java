@@ -0,0 +1,78 @@
+package org.pancakelab.benchmarks;
+
+import org.pancakelab.model.Pancake;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Retained heap per pancake for a million pancakes of three toppings each: the packed recipe the
+// shop uses today against the list-per-pancake layout it replaced. Retained size is not something
+// JMH measures, so this is a plain program; run it with a fixed heap, e.g.
+//   java -Xms2g -Xmx2g -cp target/benchmarks.jar org.pancakelab.benchmarks.HeapFootprint
+public class HeapFootprint {
+
+  private static final int PANCAKES = 1_000_000;
+  private static final Pancake.Ingredient[] RECIPE = {
+      Pancake.Ingredient.DarkChocolate, Pancake.Ingredient.Hazelnuts, Pancake.Ingredient.WhippedCream};
+
+  public static void main(String[] args) {
+    int pancakes = args.length > 0 ? Integer.parseInt(args[0]) : PANCAKES;
+    report("packed", pancakes, HeapFootprint::packed);
+    report("list", pancakes, HeapFootprint::list);
+  }
+
+  private static Object packed(UUID orderId) {
+    Pancake pancake = new Pancake(UUID.randomUUID(), orderId);
+    for (Pancake.Ingredient ingredient : RECIPE) {
+      pancake.addIngredient(ingredient);
+    }
+    return pancake;
+  }
+
+  private static Object list(UUID orderId) {
+    ListPancake pancake = new ListPancake(UUID.randomUUID(), orderId);
+    for (Pancake.Ingredient ingredient : RECIPE) {
+      pancake.addIngredient(ingredient);
+    }
+    return pancake;
+  }
+
+  private static void report(String layout, int count, Function<UUID, Object> factory) {
+    UUID orderId = UUID.randomUUID();
+    long before = usedHeap();
+    List<Object> retained = new ArrayList<>(count);
+    long afterList = usedHeap();
+    for (int i = 0; i < count; i++) {
+      retained.add(factory.apply(orderId));
+    }
+    long after = usedHeap();
+    System.out.printf("%-6s %,d pancakes: %,d bytes retained, %.1f bytes per pancake%n",
+        layout, retained.size(), after - before, (double) (after - afterList) / count);
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  // The recipe layout before ingredients were packed into a long.
+  private static final class ListPancake {
+    private final UUID id;
+    private final UUID orderId;
+    private final List<Pancake.Ingredient> ingredients = new ArrayList<>();
+
+    private ListPancake(UUID id, UUID orderId) {
+      this.id = id;
+      this.orderId = orderId;
+    }
+
+    private void addIngredient(Pancake.Ingredient ingredient) {
+      ingredients.add(ingredient);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package org.pancakelab.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.model.Delivery;
+import org.pancakelab.model.Pancake;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Thread counts come from the runner (-t); BenchmarkRunner sweeps 1, 8 and 64 with the GC profiler.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PancakeServiceBenchmark {
+
+  private static final int WINDOW = 1024;
+  private static final Pancake.Ingredient[] INGREDIENTS = Pancake.Ingredient.values();
+
+  // Each client works on its own order, so contention comes from shared structures rather than
+  // from everyone fighting over one order lock.
+  @State(Scope.Thread)
+  public static class Client {
+    final UUID[] window = new UUID[WINDOW];
+    final int[] toppings = new int[WINDOW];
+    UUID ownOrder;
+    long calls;
+
+    @Setup(Level.Iteration)
+    public void join(Shop shop) throws OrderUpdateException {
+      ownOrder = shop.service.startOrder(Shop.address(ThreadLocalRandom.current().nextInt(1000)));
+      for (int i = 0; i < WINDOW; i++) {
+        window[i] = null;
+        toppings[i] = 0;
+      }
+      calls = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void leave(Shop shop) throws OrderUpdateException {
+      shop.service.cancelOrder(ownOrder);
+      for (UUID id : window) {
+        if (id != null) {
+          cancelQuietly(shop, id);
+        }
+      }
+    }
+
+    UUID storedOrder(Shop shop) {
+      List<UUID> stored = shop.storedOrders;
+      return stored.isEmpty() ? ownOrder : stored.get(ThreadLocalRandom.current().nextInt(stored.size()));
+    }
+  }
+
+  // Each call also cancels the order started WINDOW calls earlier, so the shop keeps its size
+  // instead of growing without bound over the run.
+  @Benchmark
+  public UUID startOrder(Shop shop, Client client) throws OrderUpdateException {
+    int slot = (int) (client.calls++ % WINDOW);
+    UUID evicted = client.window[slot];
+    if (evicted != null) {
+      shop.service.cancelOrder(evicted);
+    }
+    UUID orderId = shop.service.startOrder(Shop.address(slot));
+    client.window[slot] = orderId;
+    return orderId;
+  }
+
+  // Same idea: the pancake added WINDOW calls ago is removed again.
+  @Benchmark
+  public UUID addPancake(Shop shop, Client client) throws OrderUpdateException {
+    int slot = (int) (client.calls++ % WINDOW);
+    UUID evicted = client.window[slot];
+    if (evicted != null) {
+      shop.service.removePancake(client.ownOrder, evicted);
+    }
+    UUID pancakeId = shop.service.addPancake(client.ownOrder);
+    client.window[slot] = pancakeId;
+    return pancakeId;
+  }
+
+  // Pancakes are swapped for fresh ones once they hold four toppings, i.e. once every four calls
+  // per slot, to stay below the validator's limit.
+  @Benchmark
+  public UUID addIngredient(Shop shop, Client client) throws OrderUpdateException {
+    int slot = (int) (client.calls++ % WINDOW);
+    if (client.window[slot] == null || client.toppings[slot] == 4) {
+      if (client.window[slot] != null) {
+        shop.service.removePancake(client.ownOrder, client.window[slot]);
+      }
+      client.window[slot] = shop.service.addPancake(client.ownOrder);
+      client.toppings[slot] = 0;
+    }
+    client.toppings[slot]++;
+    return shop.service.addIngredient(client.window[slot], INGREDIENTS[slot % INGREDIENTS.length]);
+  }
+
+  @Benchmark
+  public List<String> viewOrder(Shop shop, Client client) throws OrderUpdateException {
+    return shop.service.viewOrder(client.storedOrder(shop));
+  }
+
+  @Benchmark
+  public Delivery orderPipeline(Shop shop, Client client) throws OrderUpdateException {
+    UUID orderId = shop.service.startOrder(Shop.address((int) client.calls++));
+    shop.service.addPancake(orderId);
+    shop.service.completeOrder(orderId);
+    shop.service.prepareOrder(orderId);
+    return shop.service.deliverOrder(orderId);
+  }
+
+  private static void cancelQuietly(Shop shop, UUID orderId) {
+    try {
+      shop.service.cancelOrder(orderId);
+    } catch (OrderUpdateException e) {
+      // the window also holds pancake ids, which are not orders
+    }
+  }
+}
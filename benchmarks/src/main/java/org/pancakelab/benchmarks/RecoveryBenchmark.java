@@ -0,0 +1,90 @@
+package org.pancakelab.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pancakelab.model.Order;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.durable.DurableRepository;
+import org.pancakelab.repository.durable.OrderCodec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Cold start of a durable order store: load the snapshot (if any), replay the log tail and
+// rebuild the status indexes. "snapshot" recovers from a compacted snapshot plus a 1% tail,
+// "log" replays every order from the write-ahead log.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class RecoveryBenchmark {
+
+  private static final int CHUNK = 10_000;
+
+  @Param({"1000000"})
+  public int orders;
+
+  @Param({"snapshot", "log"})
+  public String recoverFrom;
+
+  private Path directory;
+
+  @Setup(Level.Trial)
+  public void write() throws IOException {
+    directory = Files.createTempDirectory("pancakelab-recovery");
+    int tail = recoverFrom.equals("snapshot") ? orders / 100 : orders;
+    try (DurableRepository<Order> store = new DurableRepository<>(directory, new OrderCodec())) {
+      List<Order> chunk = new ArrayList<>(CHUNK);
+      for (int i = 0; i < orders; i++) {
+        if (i == orders - tail) {
+          store.snapshot();
+        }
+        Order order = new Order(Shop.address(i));
+        if (i % 3 == 1) {
+          order.compareAndSetStatus(Order.Status.Pending, Order.Status.Completed);
+        }
+        chunk.add(order);
+        if (chunk.size() == CHUNK || i == orders - tail - 1 || i == orders - 1) {
+          store.saveAll(chunk);
+          chunk.clear();
+        }
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void delete() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Benchmark
+  public int coldStart() {
+    try (DurableRepository<Order> store = new DurableRepository<>(directory, new OrderCodec())) {
+      OrderRepository repository = new OrderRepository(store);
+      return repository.findCompleted().size();
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package org.pancakelab.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.model.Delivery;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.service.ShardedPancakeService;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Shard scaling: the same order pipeline against 1 to 16 single-writer shards. Run it with many
+// client threads, e.g. java -jar target/benchmarks.jar ShardedPancakeServiceBenchmark 64
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ShardedPancakeServiceBenchmark {
+
+  @Param({"1", "2", "4", "8", "16"})
+  public int shards;
+
+  ShardedPancakeService service;
+
+  @Setup(Level.Trial)
+  public void open() {
+    service = new ShardedPancakeService(shards);
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    service.close();
+  }
+
+  // Each client walks through all 100 buildings, so its orders spread evenly over the shards.
+  @State(Scope.Thread)
+  public static class Client {
+    int calls;
+  }
+
+  @Benchmark
+  public Delivery orderPipeline(ShardedPancakeServiceBenchmark shop, Client client) throws OrderUpdateException {
+    UUID orderId = shop.service.startOrder(Shop.address(client.calls++));
+    UUID pancakeId = shop.service.addPancake(orderId);
+    shop.service.addIngredient(pancakeId, Pancake.Ingredient.MilkChocolate);
+    shop.service.completeOrder(orderId);
+    shop.service.prepareOrder(orderId);
+    return shop.service.deliverOrder(orderId);
+  }
+
+  @Benchmark
+  public UUID startAndCancel(ShardedPancakeServiceBenchmark shop, Client client) throws OrderUpdateException {
+    UUID orderId = shop.service.startOrder(Shop.address(client.calls++));
+    return shop.service.cancelOrder(orderId);
+  }
+}
@@ -0,0 +1,100 @@
+package org.pancakelab.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.OrderLog;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.PreparationQueue;
+import org.pancakelab.service.metrics.ServiceMetrics;
+import org.pancakelab.util.EntityLockManager;
+import org.pancakelab.util.IdGenerator;
+import org.pancakelab.util.RandomIdGenerator;
+import org.pancakelab.util.TimeOrderedIdGenerator;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+// A shop already holding `orders` pending orders of `pancakesPerOrder` pancakes each, so every
+// benchmark runs against repositories and indexes of a realistic size.
+@State(Scope.Benchmark)
+public class Shop {
+
+  @Param({"0", "10000", "100000"})
+  public int orders;
+
+  @Param({"3"})
+  public int pancakesPerOrder;
+
+  @Param({"striped"})
+  public String locks;
+
+  @Param({"random"})
+  public String ids;
+
+  @Param({"enabled"})
+  public String metrics;
+
+  PancakeService service;
+  List<UUID> storedOrders;
+
+  @Setup(Level.Trial)
+  public void open() throws OrderUpdateException {
+    service = new PancakeService(
+        new AddressValidator(),
+        new PancakeValidator(),
+        new OrderRepository(),
+        new PancakeRepository(),
+        new OrderLog(),
+        lockManager(locks),
+        lockManager(locks),
+        idGenerator(ids),
+        new PreparationQueue(),
+        metrics.equals("enabled") ? ServiceMetrics.enabled() : ServiceMetrics.disabled());
+    List<List<Pancake.Ingredient>> recipes = Collections.nCopies(pancakesPerOrder,
+        List.of(Pancake.Ingredient.DarkChocolate, Pancake.Ingredient.WhippedCream));
+    storedOrders = new ArrayList<>(orders);
+    for (int i = 0; i < orders; i++) {
+      UUID orderId = service.startOrder(address(i));
+      service.addPancakes(orderId, recipes);
+      storedOrders.add(orderId);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    service.close();
+  }
+
+  static Address address(int i) {
+    return new Address(i % 100 + 1, i % 37 + 1);
+  }
+
+  static <K> EntityLockManager<K> lockManager(String locks) {
+    return switch (locks) {
+      case "perKey" -> EntityLockManager.perKey();
+      case "striped" -> EntityLockManager.striped(1024);
+      default -> throw new IllegalArgumentException("Unknown lock mode " + locks);
+    };
+  }
+
+  static IdGenerator idGenerator(String ids) {
+    return switch (ids) {
+      case "random" -> new RandomIdGenerator();
+      case "timeOrdered" -> new TimeOrderedIdGenerator();
+      default -> throw new IllegalArgumentException("Unknown id generator " + ids);
+    };
+  }
+}
@@ -0,0 +1,13 @@
+package org.pancakelab;
+
+import org.pancakelab.simulation.LoadSimulator;
+import org.pancakelab.simulation.SimulationConfig;
+
+// Runs the lunch-rush load simulation, e.g.
+//   java -cp target/classes org.pancakelab.Main --disciples=200 --chefs=16 --couriers=8 --duration=30s
+public class Main {
+    public static void main(String[] args) throws InterruptedException {
+        SimulationConfig config = SimulationConfig.fromArgs(args);
+        System.out.print(new LoadSimulator(config).run().format());
+    }
+}
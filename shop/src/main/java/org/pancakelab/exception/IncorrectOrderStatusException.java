@@ -0,0 +1,21 @@
+package org.pancakelab.exception;
+
+import org.pancakelab.model.Order;
+
+import java.util.UUID;
+
+public class IncorrectOrderStatusException extends OrderUpdateException {
+  public IncorrectOrderStatusException(UUID orderId, Order.Status expected, Order.Status actual) {
+    super("Order " + orderId + " was expected to be in status: " + expected + " but was in status: " + actual);
+  }
+
+  private IncorrectOrderStatusException(String message) {
+    super(message);
+  }
+
+  // For moves allowed from more than one status, such as cancelling, where no single status was expected.
+  public static IncorrectOrderStatusException cannotMove(UUID orderId, Order.Status actual, Order.Status target) {
+    return new IncorrectOrderStatusException(
+        "Order " + orderId + " can't move to status: " + target + " from status: " + actual);
+  }
+}
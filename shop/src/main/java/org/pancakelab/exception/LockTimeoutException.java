@@ -0,0 +1,9 @@
+package org.pancakelab.exception;
+
+import java.time.Duration;
+
+public class LockTimeoutException extends OrderUpdateException {
+  public LockTimeoutException(Object key, Duration timeout) {
+    super("Could not lock " + key + " within " + timeout.toMillis() + " ms");
+  }
+}
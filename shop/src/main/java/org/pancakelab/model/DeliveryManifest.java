@@ -0,0 +1,36 @@
+package org.pancakelab.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+public class DeliveryManifest {
+  private final List<Delivery> deliveries;
+  private final List<UUID> skippedOrders;
+
+  public DeliveryManifest(List<Delivery> deliveries, List<UUID> skippedOrders) {
+    this.deliveries = deliveries;
+    this.skippedOrders = skippedOrders;
+  }
+
+  public List<Delivery> getDeliveries() {
+    return Collections.unmodifiableList(deliveries);
+  }
+
+  // Orders that were no longer prepared (already delivered or cancelled) when the batch went out.
+  public List<UUID> getSkippedOrders() {
+    return Collections.unmodifiableList(skippedOrders);
+  }
+
+  public SortedSet<Integer> getBuildingNumbers() {
+    SortedSet<Integer> buildings = new TreeSet<>();
+    deliveries.forEach(d -> buildings.add(d.getOrder().getAddress().buildingNumber()));
+    return buildings;
+  }
+
+  public int getPancakeCount() {
+    return deliveries.stream().mapToInt(d -> d.getPancakes().size()).sum();
+  }
+}
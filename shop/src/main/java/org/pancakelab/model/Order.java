@@ -0,0 +1,94 @@
+package org.pancakelab.model;
+
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Order {
+    // One word holds the status ordinal in the low byte and the number of transitions applied
+    // so far above it, so a status can only be moved by someone who saw the latest one.
+    private static final int STATUS_BITS = 8;
+    private static final long STATUS_MASK = (1L << STATUS_BITS) - 1;
+    private static final Status[] STATUSES = Status.values();
+
+    private final UUID id;
+    private final Address address;
+    private final AtomicLong state;
+
+    public Order(Address address) {
+        this(UUID.randomUUID(), address, Status.Pending);
+    }
+
+    public Order(UUID id, Address address, Status status) {
+        this.id = id;
+        this.address = address;
+        this.state = new AtomicLong(status.ordinal());
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Address getAddress() {
+      return address;
+    }
+
+    public Status getStatus() {
+      return STATUSES[(int) (state.get() & STATUS_MASK)];
+    }
+
+    public long getVersion() {
+      return state.get() >>> STATUS_BITS;
+    }
+
+    // Returns false without waiting when the order is no longer in the expected status, e.g.
+    // because a concurrent caller already moved it.
+    public boolean compareAndSetStatus(Status expected, Status next) {
+      if (!expected.canMoveTo(next)) {
+        throw new IllegalArgumentException("Order can't move from status " + expected + " to " + next);
+      }
+      long current = state.get();
+      while ((current & STATUS_MASK) == expected.ordinal()) {
+        long updated = (((current >>> STATUS_BITS) + 1) << STATUS_BITS) | next.ordinal();
+        if (state.compareAndSet(current, updated)) {
+          return true;
+        }
+        current = state.get();
+      }
+      return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Order order = (Order) o;
+        return Objects.equals(id, order.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    // New statuses go at the end: the durable order codec stores the ordinal.
+    public enum Status {
+      Pending, Completed, Prepared, Delivered, Cancelled;
+
+      private Set<Status> next;
+
+      static {
+        Pending.next = EnumSet.of(Completed, Cancelled);
+        Completed.next = EnumSet.of(Prepared, Cancelled);
+        Prepared.next = EnumSet.of(Delivered, Cancelled);
+        Delivered.next = EnumSet.noneOf(Status.class);
+        Cancelled.next = EnumSet.noneOf(Status.class);
+      }
+
+      public boolean canMoveTo(Status status) {
+        return next.contains(status);
+      }
+    }
+}
@@ -0,0 +1,35 @@
+package org.pancakelab.model;
+
+// A whole recipe in one long: ingredient ordinals in the low seven bytes, in the order they were
+// added, and the number of ingredients in the top byte.
+public final class PackedIngredients {
+  public static final long EMPTY = 0L;
+  public static final int CAPACITY = 7;
+
+  private static final int COUNT_SHIFT = 56;
+  private static final long SLOT_MASK = 0xFFL;
+  private static final Pancake.Ingredient[] INGREDIENTS = Pancake.Ingredient.values();
+
+  private PackedIngredients() {
+  }
+
+  public static int count(long packed) {
+    return (int) (packed >>> COUNT_SHIFT);
+  }
+
+  public static Pancake.Ingredient get(long packed, int index) {
+    if (index < 0 || index >= count(packed)) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + count(packed) + " ingredients");
+    }
+    return INGREDIENTS[(int) ((packed >>> (index * 8)) & SLOT_MASK)];
+  }
+
+  public static long add(long packed, Pancake.Ingredient ingredient) {
+    int count = count(packed);
+    if (count == CAPACITY) {
+      throw new IllegalStateException("Pancake can't hold more than " + CAPACITY + " ingredients");
+    }
+    long slots = packed & ~(SLOT_MASK << COUNT_SHIFT);
+    return slots | ((long) ingredient.ordinal() << (count * 8)) | ((long) (count + 1) << COUNT_SHIFT);
+  }
+}
@@ -1,20 +1,26 @@
 package org.pancakelab.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 public class Pancake {
 
   private final UUID id;
   private final UUID orderId;
-  private final List<Ingredient> ingredients = new ArrayList<>();
+  private volatile long ingredients;
 
   public Pancake(UUID orderId) {
-    this.id = UUID.randomUUID();
+    this(UUID.randomUUID(), orderId);
+  }
+
+  public Pancake(UUID id, UUID orderId) {
+    this(id, orderId, PackedIngredients.EMPTY);
+  }
+
+  public Pancake(UUID id, UUID orderId, long packedIngredients) {
+    this.id = id;
     this.orderId = orderId;
+    this.ingredients = packedIngredients;
   }
 
   public UUID getId() {
@@ -26,21 +32,29 @@ public class Pancake {
   }
 
   public Pancake addIngredient(Ingredient in) {
-    ingredients.add(in);
+    ingredients = PackedIngredients.add(ingredients, in);
     return this;
   }
 
   public List<Ingredient> getIngredients() {
-    return Collections.unmodifiableList(ingredients);
+    long packed = ingredients;
+    Ingredient[] unpacked = new Ingredient[PackedIngredients.count(packed)];
+    for (int i = 0; i < unpacked.length; i++) {
+      unpacked[i] = PackedIngredients.get(packed, i);
+    }
+    return List.of(unpacked);
+  }
+
+  public int getIngredientCount() {
+    return PackedIngredients.count(ingredients);
+  }
+
+  public long getPackedIngredients() {
+    return ingredients;
   }
 
   public String getDescription() {
-    if(ingredients.isEmpty()) {
-      return "plain pancake";
-    }
-    return String.format("Pancake with %d ingredients: %s",
-        ingredients.size(),
-        ingredients.stream().map(i -> i.getDescription()).collect(Collectors.joining(", ")));
+    return PancakeDescriptions.describe(ingredients);
   }
 
   public enum Ingredient {
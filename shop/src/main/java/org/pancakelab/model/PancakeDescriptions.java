@@ -0,0 +1,43 @@
+package org.pancakelab.model;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Direct-mapped cache of descriptions keyed by the packed recipe. Shops serve a handful of distinct
+// recipes, so nearly every lookup hits and hands back the same shared String; a colliding recipe
+// simply replaces the slot, which keeps the cache bounded without any eviction bookkeeping.
+public final class PancakeDescriptions {
+  private static final int SIZE_BITS = 12;
+  private static final AtomicReferenceArray<Entry> CACHE = new AtomicReferenceArray<>(1 << SIZE_BITS);
+
+  private PancakeDescriptions() {
+  }
+
+  public static String describe(long packed) {
+    int slot = (int) ((packed * 0x9E3779B97F4A7C15L) >>> (64 - SIZE_BITS));
+    Entry entry = CACHE.get(slot);
+    if (entry != null && entry.packed == packed) {
+      return entry.description;
+    }
+    String description = build(packed);
+    CACHE.set(slot, new Entry(packed, description));
+    return description;
+  }
+
+  private static String build(long packed) {
+    int count = PackedIngredients.count(packed);
+    if (count == 0) {
+      return "plain pancake";
+    }
+    StringBuilder description = new StringBuilder("Pancake with ").append(count).append(" ingredients: ");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        description.append(", ");
+      }
+      description.append(PackedIngredients.get(packed, i).getDescription());
+    }
+    return description.toString();
+  }
+
+  private record Entry(long packed, String description) {
+  }
+}
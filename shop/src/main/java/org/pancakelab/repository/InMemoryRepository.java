@@ -0,0 +1,36 @@
+package org.pancakelab.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class InMemoryRepository<K, V> implements Repository<K, V> {
+
+  private final ConcurrentHashMap<K, V> database = new ConcurrentHashMap<>();
+  private final Function<V, K> idOf;
+
+  public InMemoryRepository(Function<V, K> idOf) {
+    this.idOf = idOf;
+  }
+
+  @Override
+  public V save(V item) {
+    return database.put(idOf.apply(item), item);
+  }
+
+  @Override
+  public Optional<V> find(K itemId) {
+    return Optional.ofNullable(database.get(itemId));
+  }
+
+  @Override
+  public List<V> findAll() {
+    return database.values().stream().toList();
+  }
+
+  @Override
+  public V remove(K itemId) {
+    return database.remove(itemId);
+  }
+}
@@ -0,0 +1,126 @@
+package org.pancakelab.repository;
+
+import org.pancakelab.model.Order;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class OrderRepository implements Repository<UUID, Order> {
+
+  private final Repository<UUID, Order> store;
+  private final ConcurrentHashMap<UUID, StatusEntry> statusEntries = new ConcurrentHashMap<>();
+  private final Map<Order.Status, ConcurrentSkipListMap<Long, UUID>> statusIndex = new EnumMap<>(Order.Status.class);
+  private final AtomicLong transitionSequence = new AtomicLong();
+
+  public OrderRepository() {
+    this(new InMemoryRepository<>(Order::getId));
+  }
+
+  public OrderRepository(Repository<UUID, Order> store) {
+    this.store = store;
+    for (Order.Status status : Order.Status.values()) {
+      statusIndex.put(status, new ConcurrentSkipListMap<>());
+    }
+    store.findAll().forEach(order -> statusEntries.compute(order.getId(), (orderId, entry) -> reindex(order, entry)));
+  }
+
+  // Store writes are staged inside the compute on the order's status entry, so the status queues
+  // can't drift from the store when a save and a remove of the same order race. Waiting for a
+  // durable store to commit happens after the entry is released.
+  @Override
+  public Order save(Order order) {
+    StagedWrite<?>[] staged = new StagedWrite<?>[1];
+    Order[] previous = new Order[1];
+    statusEntries.compute(order.getId(), (orderId, entry) -> {
+      StagedWrite<Order> write = store.stageSave(order);
+      previous[0] = write.previous();
+      staged[0] = write;
+      return reindex(order, entry);
+    });
+    staged[0].await();
+    return previous[0];
+  }
+
+  // For status changes made outside any lock: an order removed in the meantime (cancelled or
+  // delivered) stays removed instead of being written back.
+  public boolean saveIfPresent(Order order) {
+    StagedWrite<?>[] staged = new StagedWrite<?>[1];
+    statusEntries.computeIfPresent(order.getId(), (orderId, entry) -> {
+      staged[0] = store.stageSave(order);
+      return reindex(order, entry);
+    });
+    if (staged[0] == null) {
+      return false;
+    }
+    staged[0].await();
+    return true;
+  }
+
+  @Override
+  public Optional<Order> find(UUID itemId) {
+    return store.find(itemId);
+  }
+
+  public List<UUID> findCompleted() {
+    return findByStatus(Order.Status.Completed);
+  }
+
+  public List<UUID> findPrepared() {
+    return findByStatus(Order.Status.Prepared);
+  }
+
+  public List<UUID> findByStatus(Order.Status status) {
+    return List.copyOf(statusIndex.get(status).values());
+  }
+
+  public Optional<UUID> findOldestByStatus(Order.Status status) {
+    Map.Entry<Long, UUID> oldest = statusIndex.get(status).firstEntry();
+    return oldest == null ? Optional.empty() : Optional.of(oldest.getValue());
+  }
+
+  @Override
+  public List<Order> findAll() {
+    return store.findAll();
+  }
+
+  @Override
+  public Order remove(UUID itemId) {
+    StagedWrite<?>[] staged = new StagedWrite<?>[1];
+    Order[] removed = new Order[1];
+    statusEntries.compute(itemId, (orderId, entry) -> {
+      StagedWrite<Order> write = store.stageRemove(orderId);
+      removed[0] = write.previous();
+      staged[0] = write;
+      if (entry != null) {
+        statusIndex.get(entry.status()).remove(entry.sequence());
+      }
+      return null;
+    });
+    staged[0].await();
+    return removed[0];
+  }
+
+  // Orders are queued per status under the sequence number of the save that moved them there,
+  // so each listing comes back in the order the status transitions happened.
+  private StatusEntry reindex(Order order, StatusEntry entry) {
+    Order.Status status = order.getStatus();
+    if (entry != null && entry.status() == status) {
+      return entry;
+    }
+    if (entry != null) {
+      statusIndex.get(entry.status()).remove(entry.sequence());
+    }
+    long sequence = transitionSequence.incrementAndGet();
+    statusIndex.get(status).put(sequence, order.getId());
+    return new StatusEntry(status, sequence);
+  }
+
+  private record StatusEntry(Order.Status status, long sequence) {
+  }
+}
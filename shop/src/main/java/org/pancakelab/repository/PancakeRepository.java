@@ -0,0 +1,212 @@
+package org.pancakelab.repository;
+
+import org.pancakelab.model.Pancake;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Pancakes are also kept with their order: each order maps to one array holding its pancakes
+// side by side, so listing, counting or dropping an order's pancakes is a single map lookup
+// rather than one store lookup per pancake ID. The arrays are copied on write and never
+// changed once published, so readers need no lock. The store stays the place to find a
+// pancake by its own ID.
+public class PancakeRepository implements Repository<UUID, Pancake> {
+  private static final Pancake[] NONE = new Pancake[0];
+
+  private final Repository<UUID, Pancake> store;
+  private final ConcurrentHashMap<UUID, Pancake[]> pancakesByOrder = new ConcurrentHashMap<>();
+
+  public PancakeRepository() {
+    this(new InMemoryRepository<>(Pancake::getId));
+  }
+
+  public PancakeRepository(Repository<UUID, Pancake> store) {
+    this.store = store;
+    for (Pancake pancake : store.findAll()) {
+      pancakesByOrder.compute(pancake.getOrderId(), (orderId, pancakes) -> put(pancakes, pancake));
+    }
+  }
+
+  // Store writes are staged inside the compute on the order's entry, so a save and a remove
+  // touching the same order can't interleave and leave a stale pancake behind. Waiting for a
+  // durable store to commit happens after the entry is released.
+  @Override
+  public Pancake save(Pancake item) {
+    StagedWrite<?>[] staged = new StagedWrite<?>[1];
+    Pancake[] previous = new Pancake[1];
+    pancakesByOrder.compute(item.getOrderId(), (orderId, pancakes) -> {
+      StagedWrite<Pancake> write = store.stageSave(item);
+      previous[0] = write.previous();
+      staged[0] = write;
+      return put(pancakes, item);
+    });
+    staged[0].await();
+    return previous[0];
+  }
+
+  // Saves a change to a pancake that is still in its order. Returns false, and writes nothing,
+  // once the pancake or its whole order has been removed, so a late update can't bring the
+  // order's entry back.
+  public boolean update(Pancake item) {
+    StagedWrite<?>[] staged = new StagedWrite<?>[1];
+    pancakesByOrder.computeIfPresent(item.getOrderId(), (orderId, pancakes) -> {
+      if (indexOf(pancakes, item.getId()) < 0) {
+        return pancakes;
+      }
+      staged[0] = store.stageSave(item);
+      return put(pancakes, item);
+    });
+    if (staged[0] == null) {
+      return false;
+    }
+    staged[0].await();
+    return true;
+  }
+
+  // Expects pancakes of a single order, as added by one batch.
+  @Override
+  public void saveAll(Collection<Pancake> items) {
+    if (items.isEmpty()) {
+      return;
+    }
+    UUID orderId = items.iterator().next().getOrderId();
+    for (Pancake item : items) {
+      if (!item.getOrderId().equals(orderId)) {
+        throw new IllegalArgumentException("Pancake with id " + item.getId() + " does not belong to order " + orderId);
+      }
+    }
+    StagedWrite<?>[] staged = new StagedWrite<?>[1];
+    pancakesByOrder.compute(orderId, (id, pancakes) -> {
+      staged[0] = store.stageSaveAll(items);
+      return putAll(pancakes == null ? NONE : pancakes, items);
+    });
+    staged[0].await();
+  }
+
+  @Override
+  public Optional<Pancake> find(UUID itemId) {
+    return store.find(itemId);
+  }
+
+  public List<Pancake> findByOrderId(UUID orderId) {
+    Pancake[] pancakes = pancakesByOrder.get(orderId);
+    return pancakes == null ? List.of() : Collections.unmodifiableList(Arrays.asList(pancakes));
+  }
+
+  public int countByOrderId(UUID orderId) {
+    Pancake[] pancakes = pancakesByOrder.get(orderId);
+    return pancakes == null ? 0 : pancakes.length;
+  }
+
+  @Override
+  public List<Pancake> findAll() {
+    return store.findAll();
+  }
+
+  @Override
+  public Pancake remove(UUID itemId) {
+    Optional<Pancake> existing = store.find(itemId);
+    if (existing.isEmpty()) {
+      return null;
+    }
+    StagedWrite<?>[] staged = new StagedWrite<?>[1];
+    Pancake[] removed = new Pancake[1];
+    pancakesByOrder.computeIfPresent(existing.get().getOrderId(), (orderId, pancakes) -> {
+      StagedWrite<Pancake> write = store.stageRemove(itemId);
+      removed[0] = write.previous();
+      staged[0] = write;
+      Pancake[] remaining = without(pancakes, itemId);
+      return remaining.length == 0 ? null : remaining;
+    });
+    if (staged[0] != null) {
+      staged[0].await();
+    }
+    return removed[0];
+  }
+
+  // Drops an order's pancakes with one compute and one bulk store removal.
+  public List<Pancake> removeByOrderId(UUID orderId) {
+    StagedWrite<?>[] staged = new StagedWrite<?>[1];
+    Pancake[][] removed = new Pancake[1][];
+    pancakesByOrder.computeIfPresent(orderId, (id, pancakes) -> {
+      List<UUID> pancakeIds = new ArrayList<>(pancakes.length);
+      for (Pancake pancake : pancakes) {
+        pancakeIds.add(pancake.getId());
+      }
+      staged[0] = store.stageRemoveAll(pancakeIds);
+      removed[0] = pancakes;
+      return null;
+    });
+    if (staged[0] != null) {
+      staged[0].await();
+    }
+    return removed[0] == null ? List.of() : Collections.unmodifiableList(Arrays.asList(removed[0]));
+  }
+
+  private static int indexOf(Pancake[] pancakes, UUID pancakeId) {
+    for (int i = 0; i < pancakes.length; i++) {
+      if (pancakes[i].getId().equals(pancakeId)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static Pancake[] put(Pancake[] pancakes, Pancake pancake) {
+    if (pancakes == null) {
+      return new Pancake[] {pancake};
+    }
+    for (int i = 0; i < pancakes.length; i++) {
+      if (pancakes[i].getId().equals(pancake.getId())) {
+        if (pancakes[i] == pancake) {
+          return pancakes;
+        }
+        Pancake[] updated = pancakes.clone();
+        updated[i] = pancake;
+        return updated;
+      }
+    }
+    Pancake[] updated = Arrays.copyOf(pancakes, pancakes.length + 1);
+    updated[pancakes.length] = pancake;
+    return updated;
+  }
+
+  // Builds the order's new array once for the whole batch instead of copying it per pancake.
+  private static Pancake[] putAll(Pancake[] pancakes, Collection<Pancake> items) {
+    Map<UUID, Integer> positions = new HashMap<>();
+    for (int i = 0; i < pancakes.length; i++) {
+      positions.put(pancakes[i].getId(), i);
+    }
+    Pancake[] updated = Arrays.copyOf(pancakes, pancakes.length + items.size());
+    int size = pancakes.length;
+    for (Pancake item : items) {
+      Integer position = positions.putIfAbsent(item.getId(), size);
+      if (position == null) {
+        updated[size++] = item;
+      } else {
+        updated[position] = item;
+      }
+    }
+    return size == updated.length ? updated : Arrays.copyOf(updated, size);
+  }
+
+  private static Pancake[] without(Pancake[] pancakes, UUID pancakeId) {
+    for (int i = 0; i < pancakes.length; i++) {
+      if (pancakes[i].getId().equals(pancakeId)) {
+        Pancake[] updated = new Pancake[pancakes.length - 1];
+        System.arraycopy(pancakes, 0, updated, 0, i);
+        System.arraycopy(pancakes, i + 1, updated, i, pancakes.length - i - 1);
+        return updated;
+      }
+    }
+    return pancakes;
+  }
+}
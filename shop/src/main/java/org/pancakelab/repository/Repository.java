@@ -0,0 +1,40 @@
+package org.pancakelab.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface Repository<K, V> {
+  V save(V item);
+  Optional<V> find(K itemId);
+  List<V> findAll();
+  V remove(K itemId);
+
+  default void saveAll(Collection<V> items) {
+    items.forEach(this::save);
+  }
+
+  default void removeAll(Collection<K> itemIds) {
+    itemIds.forEach(this::remove);
+  }
+
+  // The staged variants apply the write in memory and leave waiting for the disk to the caller.
+  // Stores that keep nothing on disk are done as soon as the write is applied.
+  default StagedWrite<V> stageSave(V item) {
+    return StagedWrite.applied(save(item));
+  }
+
+  default StagedWrite<V> stageRemove(K itemId) {
+    return StagedWrite.applied(remove(itemId));
+  }
+
+  default StagedWrite<V> stageSaveAll(Collection<V> items) {
+    saveAll(items);
+    return StagedWrite.applied(null);
+  }
+
+  default StagedWrite<V> stageRemoveAll(Collection<K> itemIds) {
+    removeAll(itemIds);
+    return StagedWrite.applied(null);
+  }
+}
@@ -0,0 +1,50 @@
+package org.pancakelab.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// A store write that is already visible in memory, and the wait for it to reach disk. Indexes
+// stage their store writes while holding a key's entry and only wait once they've let go of it,
+// so a slow fsync never blocks other keys.
+public final class StagedWrite<V> {
+  private static final CompletableFuture<Long> DURABLE = CompletableFuture.completedFuture(0L);
+
+  private final V previous;
+  private final CompletableFuture<?> durable;
+
+  public StagedWrite(V previous, CompletableFuture<?> durable) {
+    this.previous = previous;
+    this.durable = durable;
+  }
+
+  // For stores that keep nothing on disk: the write is done once it is applied.
+  public static <V> StagedWrite<V> applied(V previous) {
+    return new StagedWrite<>(previous, DURABLE);
+  }
+
+  // The value the write replaced or removed, if any.
+  public V previous() {
+    return previous;
+  }
+
+  public V await() {
+    join(durable);
+    return previous;
+  }
+
+  public static <T> T join(CompletableFuture<T> durable) {
+    try {
+      return durable.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException io) {
+        throw new UncheckedIOException(io);
+      }
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,307 @@
+package org.pancakelab.repository.durable;
+
+import org.pancakelab.repository.Repository;
+import org.pancakelab.repository.StagedWrite;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Reads are served from memory. Every mutation is appended to the write-ahead log and the caller
+// returns once its group commit is on disk. A snapshot rotates the log under a short write lock,
+// dumps the map and drops the segments it covers, so recovery is "latest snapshot + log tail".
+public class DurableRepository<V> implements Repository<UUID, V>, AutoCloseable {
+  static final String SNAPSHOT_PREFIX = "snapshot-";
+  static final String SNAPSHOT_SUFFIX = ".snap";
+
+  private final Path directory;
+  private final RecordCodec<V> codec;
+  private final ConcurrentHashMap<UUID, V> database = new ConcurrentHashMap<>();
+  private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+  private final WriteAheadLog writeAheadLog;
+  private final ScheduledExecutorService compactor;
+  private final LongAdder failedSnapshots = new LongAdder();
+  private volatile boolean closed;
+
+  public DurableRepository(Path directory, RecordCodec<V> codec) {
+    this(directory, codec, null);
+  }
+
+  public DurableRepository(Path directory, RecordCodec<V> codec, Duration snapshotInterval) {
+    this.directory = directory;
+    this.codec = codec;
+    try {
+      Files.createDirectories(directory);
+      this.writeAheadLog = new WriteAheadLog(directory, recover());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (snapshotInterval == null) {
+      this.compactor = null;
+    } else {
+      this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "snapshot-" + directory.getFileName());
+        thread.setDaemon(true);
+        return thread;
+      });
+      long interval = snapshotInterval.toMillis();
+      this.compactor.scheduleWithFixedDelay(this::scheduledSnapshot, interval, interval, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public V save(V item) {
+    return stageSave(item).await();
+  }
+
+  @Override
+  public void saveAll(Collection<V> items) {
+    stageSaveAll(items).await();
+  }
+
+  @Override
+  public Optional<V> find(UUID itemId) {
+    return Optional.ofNullable(database.get(itemId));
+  }
+
+  @Override
+  public List<V> findAll() {
+    return database.values().stream().toList();
+  }
+
+  @Override
+  public V remove(UUID itemId) {
+    return stageRemove(itemId).await();
+  }
+
+  @Override
+  public void removeAll(Collection<UUID> itemIds) {
+    stageRemoveAll(itemIds).await();
+  }
+
+  // Frames are appended inside the map update of their key, so two writes of the same item reach
+  // the log in the order they reached memory and recovery ends on the newer one.
+  @Override
+  public StagedWrite<V> stageSave(V item) {
+    UUID id = codec.id(item);
+    byte[] frame = Frames.encode(Frames.PUT, id, encode(item));
+    Object[] previous = new Object[1];
+    CompletableFuture<?>[] committed = new CompletableFuture<?>[1];
+    rotationLock.readLock().lock();
+    try {
+      ensureOpen();
+      database.compute(id, (key, existing) -> {
+        previous[0] = existing;
+        committed[0] = writeAheadLog.append(frame);
+        return item;
+      });
+    } finally {
+      rotationLock.readLock().unlock();
+    }
+    return staged(previous[0], committed[0]);
+  }
+
+  // All frames join the same queue under one read lock, so the batch lands in a single group commit.
+  @Override
+  public StagedWrite<V> stageSaveAll(Collection<V> items) {
+    List<byte[]> frames = new ArrayList<>(items.size());
+    for (V item : items) {
+      frames.add(Frames.encode(Frames.PUT, codec.id(item), encode(item)));
+    }
+    CompletableFuture<?>[] committed = new CompletableFuture<?>[1];
+    rotationLock.readLock().lock();
+    try {
+      ensureOpen();
+      int i = 0;
+      for (V item : items) {
+        byte[] frame = frames.get(i++);
+        database.compute(codec.id(item), (key, existing) -> {
+          committed[0] = writeAheadLog.append(frame);
+          return item;
+        });
+      }
+    } finally {
+      rotationLock.readLock().unlock();
+    }
+    return staged(null, committed[0]);
+  }
+
+  @Override
+  public StagedWrite<V> stageRemove(UUID itemId) {
+    Object[] removed = new Object[1];
+    CompletableFuture<?>[] committed = new CompletableFuture<?>[1];
+    rotationLock.readLock().lock();
+    try {
+      ensureOpen();
+      database.computeIfPresent(itemId, (key, existing) -> {
+        removed[0] = existing;
+        committed[0] = writeAheadLog.append(Frames.encode(Frames.DELETE, key, new byte[0]));
+        return null;
+      });
+    } finally {
+      rotationLock.readLock().unlock();
+    }
+    return staged(removed[0], committed[0]);
+  }
+
+  @Override
+  public StagedWrite<V> stageRemoveAll(Collection<UUID> itemIds) {
+    CompletableFuture<?>[] committed = new CompletableFuture<?>[1];
+    rotationLock.readLock().lock();
+    try {
+      ensureOpen();
+      for (UUID itemId : itemIds) {
+        database.computeIfPresent(itemId, (key, existing) -> {
+          committed[0] = writeAheadLog.append(Frames.encode(Frames.DELETE, key, new byte[0]));
+          return null;
+        });
+      }
+    } finally {
+      rotationLock.readLock().unlock();
+    }
+    return staged(null, committed[0]);
+  }
+
+  // Every mutation that reached the map before the rotation sits in an older segment, so the
+  // (possibly fuzzy) dump plus a replay of the new segments always converges to the live state.
+  public synchronized void snapshot() {
+    CompletableFuture<Long> rotated;
+    rotationLock.writeLock().lock();
+    try {
+      ensureOpen();
+      rotated = writeAheadLog.rotate();
+    } finally {
+      rotationLock.writeLock().unlock();
+    }
+    long segment = StagedWrite.join(rotated);
+    try {
+      Path snapshot = Frames.path(directory, SNAPSHOT_PREFIX, segment, SNAPSHOT_SUFFIX);
+      Path temporary = directory.resolve(snapshot.getFileName() + ".tmp");
+      try (OutputStream out = Files.newOutputStream(temporary)) {
+        for (V item : database.values()) {
+          out.write(Frames.encode(Frames.PUT, codec.id(item), encode(item)));
+        }
+      }
+      Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE);
+      for (Path old : Frames.list(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+        if (Frames.number(old, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < segment) {
+          Files.delete(old);
+        }
+      }
+      for (Path old : Frames.list(directory, WriteAheadLog.PREFIX, WriteAheadLog.SUFFIX)) {
+        if (Frames.number(old, WriteAheadLog.PREFIX, WriteAheadLog.SUFFIX) < segment) {
+          Files.delete(old);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public long failedSnapshots() {
+    return failedSnapshots.sum();
+  }
+
+  // Writes racing with close either get in before it, and are committed, or fail fast.
+  @Override
+  public void close() {
+    rotationLock.writeLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    } finally {
+      rotationLock.writeLock().unlock();
+    }
+    if (compactor != null) {
+      compactor.shutdownNow();
+    }
+    writeAheadLog.close();
+  }
+
+  // A failed scheduled snapshot would otherwise vanish into its future and cancel every later
+  // run, so it is counted, reported to the thread's handler, and the next run tries again.
+  private void scheduledSnapshot() {
+    if (closed) {
+      return;
+    }
+    try {
+      snapshot();
+    } catch (RuntimeException e) {
+      failedSnapshots.increment();
+      Thread thread = Thread.currentThread();
+      thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    }
+  }
+
+  private void ensureOpen() {
+    if (closed) {
+      throw new IllegalStateException("Repository in " + directory + " is closed");
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private StagedWrite<V> staged(Object previous, CompletableFuture<?> committed) {
+    return committed == null ? StagedWrite.applied((V) previous) : new StagedWrite<>((V) previous, committed);
+  }
+
+  // Loads the newest snapshot, replays the log segments it does not cover and returns the
+  // number of the segment new writes should go to.
+  private long recover() throws IOException {
+    long base = 0;
+    List<Path> snapshots = Frames.list(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+    if (!snapshots.isEmpty()) {
+      Path latest = snapshots.get(snapshots.size() - 1);
+      base = Frames.number(latest, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+      Frames.read(latest, this::apply);
+    }
+    long next = base;
+    for (Path segment : Frames.list(directory, WriteAheadLog.PREFIX, WriteAheadLog.SUFFIX)) {
+      long number = Frames.number(segment, WriteAheadLog.PREFIX, WriteAheadLog.SUFFIX);
+      if (number >= base) {
+        Frames.read(segment, this::apply);
+        next = Math.max(next, number + 1);
+      }
+    }
+    return next;
+  }
+
+  private void apply(byte type, UUID id, byte[] payload) throws IOException {
+    if (type == Frames.PUT) {
+      database.put(id, codec.decode(id, new DataInputStream(new ByteArrayInputStream(payload))));
+    } else {
+      database.remove(id);
+    }
+  }
+
+  private byte[] encode(V item) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+    try {
+      codec.encode(item, new DataOutputStream(bytes));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+}
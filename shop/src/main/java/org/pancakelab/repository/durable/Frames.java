@@ -0,0 +1,93 @@
+package org.pancakelab.repository.durable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Frame layout shared by the write-ahead log and snapshots:
+//   int body length | int CRC32 of body | body = byte type, long id msb, long id lsb, payload
+// Reading stops at the first frame that is truncated or fails its checksum.
+final class Frames {
+  static final byte PUT = 1;
+  static final byte DELETE = 2;
+  static final int HEADER_SIZE = 8;
+  static final int ID_SIZE = 17;
+
+  private Frames() {
+  }
+
+  static byte[] encode(byte type, UUID id, byte[] payload) {
+    int bodyLength = ID_SIZE + payload.length;
+    ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + bodyLength);
+    frame.putInt(bodyLength).putInt(0)
+        .put(type)
+        .putLong(id.getMostSignificantBits())
+        .putLong(id.getLeastSignificantBits())
+        .put(payload);
+    CRC32 crc = new CRC32();
+    crc.update(frame.array(), HEADER_SIZE, bodyLength);
+    frame.putInt(4, (int) crc.getValue());
+    return frame.array();
+  }
+
+  static long read(Path file, FrameHandler handler) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      CRC32 crc = new CRC32();
+      long frames = 0;
+      while (buffer.remaining() >= HEADER_SIZE) {
+        int bodyLength = buffer.getInt(buffer.position());
+        int checksum = buffer.getInt(buffer.position() + 4);
+        if (bodyLength < ID_SIZE || bodyLength > buffer.remaining() - HEADER_SIZE) {
+          break;
+        }
+        ByteBuffer body = buffer.slice(buffer.position() + HEADER_SIZE, bodyLength);
+        crc.reset();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != checksum) {
+          break;
+        }
+        byte type = body.get();
+        UUID id = new UUID(body.getLong(), body.getLong());
+        byte[] payload = new byte[body.remaining()];
+        body.get(payload);
+        handler.handle(type, id, payload);
+        buffer.position(buffer.position() + HEADER_SIZE + bodyLength);
+        frames++;
+      }
+      return frames;
+    }
+  }
+
+  static List<Path> list(Path directory, String prefix, String suffix) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(p -> p.getFileName().toString().startsWith(prefix))
+          .filter(p -> p.getFileName().toString().endsWith(suffix))
+          .sorted()
+          .toList();
+    }
+  }
+
+  static Path path(Path directory, String prefix, long number, String suffix) {
+    return directory.resolve(String.format("%s%020d%s", prefix, number, suffix));
+  }
+
+  static long number(Path file, String prefix, String suffix) {
+    String name = file.getFileName().toString();
+    return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+  }
+
+  @FunctionalInterface
+  interface FrameHandler {
+    void handle(byte type, UUID id, byte[] payload) throws IOException;
+  }
+}
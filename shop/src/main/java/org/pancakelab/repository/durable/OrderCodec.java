@@ -0,0 +1,31 @@
+package org.pancakelab.repository.durable;
+
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Order;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+
+public class OrderCodec implements RecordCodec<Order> {
+  private static final Order.Status[] STATUSES = Order.Status.values();
+
+  @Override
+  public UUID id(Order item) {
+    return item.getId();
+  }
+
+  @Override
+  public void encode(Order item, DataOutput out) throws IOException {
+    out.writeInt(item.getAddress().buildingNumber());
+    out.writeInt(item.getAddress().roomNumber());
+    out.writeByte(item.getStatus().ordinal());
+  }
+
+  @Override
+  public Order decode(UUID id, DataInput in) throws IOException {
+    Address address = new Address(in.readInt(), in.readInt());
+    return new Order(id, address, STATUSES[in.readByte()]);
+  }
+}
@@ -0,0 +1,28 @@
+package org.pancakelab.repository.durable;
+
+import org.pancakelab.model.Pancake;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+
+public class PancakeCodec implements RecordCodec<Pancake> {
+
+  @Override
+  public UUID id(Pancake item) {
+    return item.getId();
+  }
+
+  @Override
+  public void encode(Pancake item, DataOutput out) throws IOException {
+    out.writeLong(item.getOrderId().getMostSignificantBits());
+    out.writeLong(item.getOrderId().getLeastSignificantBits());
+    out.writeLong(item.getPackedIngredients());
+  }
+
+  @Override
+  public Pancake decode(UUID id, DataInput in) throws IOException {
+    return new Pancake(id, new UUID(in.readLong(), in.readLong()), in.readLong());
+  }
+}
@@ -0,0 +1,14 @@
+package org.pancakelab.repository.durable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+
+public interface RecordCodec<V> {
+  UUID id(V item);
+
+  void encode(V item, DataOutput out) throws IOException;
+
+  V decode(UUID id, DataInput in) throws IOException;
+}
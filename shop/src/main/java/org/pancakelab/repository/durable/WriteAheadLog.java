@@ -0,0 +1,209 @@
+package org.pancakelab.repository.durable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Group commit: callers enqueue frames and wait on a future; the committer thread drains
+// everything queued so far, writes it with one call and completes the whole batch after one fsync.
+class WriteAheadLog implements AutoCloseable {
+  static final String PREFIX = "wal-";
+  static final String SUFFIX = ".log";
+  private static final int MAX_BATCH = 4096;
+
+  private final Path directory;
+  private final SegmentOpener opener;
+  private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+  private final Thread committer;
+  private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+  private FileChannel channel;
+  private long segment;
+  private long durable;
+  private volatile boolean running = true;
+  private volatile Exception failure;
+
+  WriteAheadLog(Path directory, long firstSegment) {
+    this(directory, firstSegment, path -> FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+  }
+
+  WriteAheadLog(Path directory, long firstSegment, SegmentOpener opener) {
+    this.directory = directory;
+    this.opener = opener;
+    open(firstSegment);
+    this.committer = new Thread(this::run, "wal-committer-" + directory.getFileName());
+    this.committer.setDaemon(true);
+    this.committer.start();
+  }
+
+  CompletableFuture<Long> append(byte[] frame) {
+    return enqueue(new Entry(frame));
+  }
+
+  // Completes with the number of the new segment once every frame queued before it is durable.
+  CompletableFuture<Long> rotate() {
+    return enqueue(new Entry(null));
+  }
+
+  private CompletableFuture<Long> enqueue(Entry entry) {
+    if (!running) {
+      return CompletableFuture.failedFuture(closed());
+    }
+    queue.add(entry);
+    return entry.done;
+  }
+
+  private IllegalStateException closed() {
+    return failure == null
+        ? new IllegalStateException("Write-ahead log in " + directory + " is closed")
+        : new IllegalStateException("Write-ahead log in " + directory + " failed", failure);
+  }
+
+  private void run() {
+    List<Entry> batch = new ArrayList<>(MAX_BATCH);
+    List<Entry> written = new ArrayList<>(MAX_BATCH);
+    while (running || !queue.isEmpty()) {
+      try {
+        Entry first = queue.poll(10, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, MAX_BATCH - 1);
+        commit(batch, written);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        batch.clear();
+        written.clear();
+      }
+    }
+  }
+
+  private void commit(List<Entry> batch, List<Entry> written) {
+    if (failure != null) {
+      for (Entry entry : batch) {
+        entry.done.completeExceptionally(closed());
+      }
+      return;
+    }
+    try {
+      for (Entry entry : batch) {
+        if (entry.frame == null) {
+          sync(written);
+          channel.close();
+          open(segment + 1);
+          entry.done.complete(segment);
+        } else {
+          buffer(entry.frame);
+          written.add(entry);
+        }
+      }
+      sync(written);
+    } catch (IOException | UncheckedIOException e) {
+      fail(e);
+      for (Entry entry : batch) {
+        entry.done.completeExceptionally(e);
+      }
+    }
+  }
+
+  // After a failed write or rotation nothing past the last fsync can be trusted: the buffer is
+  // dropped, the segment is cut back to what was durable and the log fails closed, so no later
+  // frame is ever written behind a torn one.
+  private void fail(Exception e) {
+    failure = e;
+    running = false;
+    buffer.clear();
+    try {
+      if (channel.isOpen()) {
+        channel.truncate(durable);
+        channel.force(false);
+      }
+    } catch (IOException suppressed) {
+      e.addSuppressed(suppressed);
+    }
+  }
+
+  private void buffer(byte[] frame) throws IOException {
+    if (buffer.remaining() < frame.length) {
+      drainBuffer();
+      if (buffer.capacity() < frame.length) {
+        buffer = ByteBuffer.allocateDirect(frame.length);
+      }
+    }
+    buffer.put(frame);
+  }
+
+  private void drainBuffer() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  private void sync(List<Entry> written) throws IOException {
+    if (written.isEmpty()) {
+      return;
+    }
+    drainBuffer();
+    channel.force(false);
+    durable = channel.size();
+    for (Entry entry : written) {
+      entry.done.complete(segment);
+    }
+    written.clear();
+  }
+
+  private void open(long number) {
+    try {
+      channel = opener.open(Frames.path(directory, PREFIX, number, SUFFIX));
+      durable = channel.size();
+      segment = number;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // Anything still queued once the committer is gone would never complete, so it fails instead.
+  @Override
+  public void close() {
+    running = false;
+    try {
+      committer.join();
+      Entry stranded;
+      while ((stranded = queue.poll()) != null) {
+        stranded.done.completeExceptionally(closed());
+      }
+      channel.close();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  interface SegmentOpener {
+    FileChannel open(Path segment) throws IOException;
+  }
+
+  private static class Entry {
+    private final byte[] frame;
+    private final CompletableFuture<Long> done = new CompletableFuture<>();
+
+    private Entry(byte[] frame) {
+      this.frame = frame;
+    }
+  }
+}
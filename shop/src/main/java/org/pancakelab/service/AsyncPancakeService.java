@@ -0,0 +1,155 @@
+package org.pancakelab.service;
+
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Delivery;
+import org.pancakelab.model.DeliveryManifest;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.util.VirtualThreads;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+// Non-blocking front end for PancakeService. Calls about the same order, including ingredients
+// added to its pancakes, run one after another in the order they were made, so a client can fire
+// addPancake, completeOrder and prepareOrder back to back without waiting for each reply.
+// Calls about different orders run in parallel. A failed step doesn't stop the ones queued
+// behind it; the service's exceptions come back as exceptional completions.
+public class AsyncPancakeService implements AutoCloseable {
+
+  private final PancakeService pancakeService;
+  private final Executor executor;
+  private final ExecutorService ownedExecutor;
+  private final ConcurrentHashMap<UUID, CompletableFuture<?>> tails = new ConcurrentHashMap<>();
+
+  public AsyncPancakeService(PancakeService pancakeService) {
+    this(pancakeService, VirtualThreads.newThreadPerTaskExecutor(), true);
+  }
+
+  public AsyncPancakeService(PancakeService pancakeService, Executor executor) {
+    this(pancakeService, executor, false);
+  }
+
+  private AsyncPancakeService(PancakeService pancakeService, Executor executor, boolean owned) {
+    this.pancakeService = pancakeService;
+    this.executor = executor;
+    this.ownedExecutor = owned ? (ExecutorService) executor : null;
+  }
+
+  public CompletableFuture<UUID> startOrder(Address address) {
+    return unordered(() -> pancakeService.startOrder(address));
+  }
+
+  public CompletableFuture<UUID> addPancake(UUID orderId) {
+    return inOrder(orderId, () -> pancakeService.addPancake(orderId));
+  }
+
+  public CompletableFuture<List<UUID>> addPancakes(UUID orderId, List<List<Pancake.Ingredient>> recipes) {
+    return inOrder(orderId, () -> pancakeService.addPancakes(orderId, recipes));
+  }
+
+  public CompletableFuture<UUID> removePancake(UUID orderId, UUID pancakeId) {
+    return inOrder(orderId, () -> pancakeService.removePancake(orderId, pancakeId));
+  }
+
+  // Takes the pancake's order so the ingredient queues with the order's other calls.
+  public CompletableFuture<UUID> addIngredient(UUID orderId, UUID pancakeId, Pancake.Ingredient ingredient) {
+    return inOrder(orderId, () -> pancakeService.addIngredient(pancakeId, ingredient));
+  }
+
+  // Queued behind earlier calls for the order, so the view includes their changes.
+  public CompletableFuture<List<String>> viewOrder(UUID orderId) {
+    return inOrder(orderId, () -> pancakeService.viewOrder(orderId));
+  }
+
+  public CompletableFuture<UUID> cancelOrder(UUID orderId) {
+    return inOrder(orderId, () -> pancakeService.cancelOrder(orderId));
+  }
+
+  public CompletableFuture<UUID> completeOrder(UUID orderId) {
+    return inOrder(orderId, () -> pancakeService.completeOrder(orderId));
+  }
+
+  public CompletableFuture<UUID> prepareOrder(UUID orderId) {
+    return inOrder(orderId, () -> pancakeService.prepareOrder(orderId));
+  }
+
+  public CompletableFuture<Optional<UUID>> takeNextOrderToPrepare(Duration timeout) {
+    return unordered(() -> pancakeService.takeNextOrderToPrepare(timeout));
+  }
+
+  public CompletableFuture<Delivery> deliverOrder(UUID orderId) {
+    return inOrder(orderId, () -> pancakeService.deliverOrder(orderId));
+  }
+
+  public CompletableFuture<DeliveryManifest> deliverOrders(Collection<UUID> orderIds) {
+    return unordered(() -> pancakeService.deliverOrders(orderIds));
+  }
+
+  public CompletableFuture<List<UUID>> listCompletedOrders() {
+    return unordered(pancakeService::listCompletedOrders);
+  }
+
+  public CompletableFuture<List<UUID>> listPreparedOrders() {
+    return unordered(pancakeService::listPreparedOrders);
+  }
+
+  // Number of orders with calls still queued or running.
+  public int busyKeys() {
+    return tails.size();
+  }
+
+  // Only shuts down the executor this facade created itself; running calls are allowed to finish.
+  @Override
+  public void close() {
+    if (ownedExecutor != null) {
+      ownedExecutor.shutdown();
+    }
+  }
+
+  // Each call is chained behind the last one for its key; the entry is dropped once the chain
+  // runs dry, so idle orders cost nothing.
+  private <T> CompletableFuture<T> inOrder(UUID key, Call<T> call) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    CompletableFuture<?> previous = tails.put(key, result);
+    if (previous == null) {
+      run(call, result);
+    } else {
+      previous.whenComplete((value, failure) -> run(call, result));
+    }
+    result.whenComplete((value, failure) -> tails.remove(key, result));
+    return result;
+  }
+
+  private <T> CompletableFuture<T> unordered(Call<T> call) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    run(call, result);
+    return result;
+  }
+
+  private <T> void run(Call<T> call, CompletableFuture<T> result) {
+    try {
+      executor.execute(() -> {
+        try {
+          result.complete(call.run());
+        } catch (Throwable t) {
+          result.completeExceptionally(t);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      result.completeExceptionally(e);
+    }
+  }
+
+  @FunctionalInterface
+  private interface Call<T> {
+    T run() throws Exception;
+  }
+}
@@ -0,0 +1,195 @@
+package org.pancakelab.service;
+
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.model.DeliveryManifest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Collects prepared orders per building and sends a courier once a building has a full batch or
+// its oldest order has waited long enough. Deliveries run on the batcher's own thread, so the
+// chef whose order filled a batch doesn't wait for the trip.
+public class DeliveryBatcher implements OrderLifecycleListener, AutoCloseable {
+
+  private final PancakeService pancakeService;
+  private final int maxBatchSize;
+  private final long maxAgeNanos;
+  private final Consumer<DeliveryManifest> courier;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<Integer, Batch> batches = new HashMap<>();
+  private final ScheduledExecutorService dispatcher;
+  private final LongAdder trips = new LongAdder();
+  private final LongAdder deliveredOrders = new LongAdder();
+  private final LongAdder failedTrips = new LongAdder();
+
+  public DeliveryBatcher(PancakeService pancakeService, int maxBatchSize, Duration maxAge,
+                         Consumer<DeliveryManifest> courier) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive but was " + maxBatchSize);
+    }
+    if (maxAge.isNegative() || maxAge.isZero()) {
+      throw new IllegalArgumentException("Batch age must be positive but was " + maxAge);
+    }
+    this.pancakeService = pancakeService;
+    this.maxBatchSize = maxBatchSize;
+    this.maxAgeNanos = maxAge.toNanos();
+    this.courier = courier;
+    this.dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "delivery-batcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long tick = Math.max(1, maxAgeNanos / 4);
+    dispatcher.scheduleWithFixedDelay(this::releaseExpired, tick, tick, TimeUnit.NANOSECONDS);
+    pancakeService.addLifecycleListener(this);
+  }
+
+  @Override
+  public void onEvent(OrderLifecycleEvent event) {
+    switch (event.type()) {
+      case Prepared -> add(event.orderId(), event.address().buildingNumber());
+      case Cancelled, Expired, Delivered -> discard(event.orderId(), event.address().buildingNumber());
+      default -> {
+      }
+    }
+  }
+
+  public long trips() {
+    return trips.sum();
+  }
+
+  public long deliveredOrders() {
+    return deliveredOrders.sum();
+  }
+
+  public long failedTrips() {
+    return failedTrips.sum();
+  }
+
+  public int waitingOrders() {
+    lock.lock();
+    try {
+      return batches.values().stream().mapToInt(b -> b.orderIds.size()).sum();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Sends out every open batch regardless of size or age.
+  public void flush() {
+    List<List<UUID>> released;
+    lock.lock();
+    try {
+      released = new ArrayList<>(batches.size());
+      batches.values().forEach(b -> released.add(b.orderIds));
+      batches.clear();
+    } finally {
+      lock.unlock();
+    }
+    released.forEach(this::dispatch);
+  }
+
+  @Override
+  public void close() {
+    pancakeService.removeLifecycleListener(this);
+    flush();
+    dispatcher.shutdown();
+    try {
+      dispatcher.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void add(UUID orderId, int building) {
+    List<UUID> full = null;
+    lock.lock();
+    try {
+      Batch batch = batches.computeIfAbsent(building, b -> new Batch(System.nanoTime()));
+      batch.orderIds.add(orderId);
+      if (batch.orderIds.size() >= maxBatchSize) {
+        batches.remove(building);
+        full = batch.orderIds;
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (full != null) {
+      dispatch(full);
+    }
+  }
+
+  private void discard(UUID orderId, int building) {
+    lock.lock();
+    try {
+      Batch batch = batches.get(building);
+      if (batch != null && batch.orderIds.remove(orderId) && batch.orderIds.isEmpty()) {
+        batches.remove(building);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void releaseExpired() {
+    List<List<UUID>> expired = new ArrayList<>();
+    long now = System.nanoTime();
+    lock.lock();
+    try {
+      Iterator<Batch> iterator = batches.values().iterator();
+      while (iterator.hasNext()) {
+        Batch batch = iterator.next();
+        if (now - batch.oldestNanos >= maxAgeNanos) {
+          expired.add(batch.orderIds);
+          iterator.remove();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    expired.forEach(this::deliver);
+  }
+
+  private void dispatch(List<UUID> orderIds) {
+    try {
+      dispatcher.execute(() -> deliver(orderIds));
+    } catch (RejectedExecutionException e) {
+      deliver(orderIds);
+    }
+  }
+
+  private void deliver(List<UUID> orderIds) {
+    try {
+      DeliveryManifest manifest = pancakeService.deliverOrders(orderIds);
+      if (manifest.getDeliveries().isEmpty()) {
+        return;
+      }
+      trips.increment();
+      deliveredOrders.add(manifest.getDeliveries().size());
+      courier.accept(manifest);
+    } catch (OrderUpdateException | RuntimeException e) {
+      failedTrips.increment();
+    }
+  }
+
+  private static final class Batch {
+    private final long oldestNanos;
+    private final List<UUID> orderIds = new ArrayList<>();
+
+    private Batch(long oldestNanos) {
+      this.oldestNanos = oldestNanos;
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package org.pancakelab.service;
+
+import org.pancakelab.model.Order;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Cooks completed orders on a fixed number of griddles. Each order is split into one task per
+// pancake, the tasks run in parallel on whichever griddles are free, and the last one to finish
+// moves the order to Prepared. The Completed event only hands the order to a dispatcher thread,
+// which feeds its pancakes to the griddles as they come free; completeOrder itself only waits on
+// the service's preparation queue, which stays the one limit on orders waiting for the kitchen.
+// Orders completed before the engine was attached are left to takeNextOrderToPrepare.
+public class KitchenEngine implements OrderLifecycleListener, AutoCloseable {
+
+  // The work of cooking one pancake of an order, run on a griddle thread.
+  @FunctionalInterface
+  public interface Griddle {
+    void cook(UUID orderId, String pancake) throws InterruptedException;
+
+    static Griddle timed(Duration perPancake) {
+      long nanos = perPancake.toNanos();
+      return (orderId, pancake) -> TimeUnit.NANOSECONDS.sleep(nanos);
+    }
+  }
+
+  // Tells the dispatcher to stop; compared by reference, so no order ID can be mistaken for it.
+  private static final UUID STOP = new UUID(0, 0);
+
+  private final PancakeService pancakeService;
+  private final Griddle griddle;
+  private final int griddles;
+  private final Semaphore freeGriddles;
+  private final ExecutorService workers;
+  private final LinkedBlockingQueue<UUID> incoming = new LinkedBlockingQueue<>();
+  private final Thread dispatcher;
+  private final ConcurrentHashMap<UUID, Job> jobs = new ConcurrentHashMap<>();
+  private final AtomicInteger queuedPancakes = new AtomicInteger();
+  private final AtomicInteger cookingPancakes = new AtomicInteger();
+  private final LongAdder cookedPancakes = new LongAdder();
+  private final LongAdder preparedOrders = new LongAdder();
+  private final LongAdder abandonedOrders = new LongAdder();
+  private final LongAdder busyNanos = new LongAdder();
+  private final long openedNanos = System.nanoTime();
+
+  public KitchenEngine(PancakeService pancakeService, int griddles, Griddle griddle) {
+    if (griddles < 1) {
+      throw new IllegalArgumentException("Griddle count must be positive but was " + griddles);
+    }
+    this.pancakeService = pancakeService;
+    this.griddle = griddle;
+    this.griddles = griddles;
+    this.freeGriddles = new Semaphore(griddles);
+    AtomicInteger threads = new AtomicInteger();
+    this.workers = Executors.newFixedThreadPool(griddles, r -> {
+      Thread thread = new Thread(r, "griddle-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.dispatcher = new Thread(this::dispatch, "kitchen-dispatcher");
+    dispatcher.setDaemon(true);
+    dispatcher.start();
+    pancakeService.addLifecycleListener(this);
+  }
+
+  @Override
+  public void onEvent(OrderLifecycleEvent event) {
+    switch (event.type()) {
+      case Completed -> incoming.add(event.orderId());
+      // someone else prepared it, or it is gone: whatever is still queued for it is skipped
+      case Prepared, Delivered, Cancelled, Expired -> abandon(event.orderId());
+      default -> {
+      }
+    }
+  }
+
+  public KitchenStats stats() {
+    long elapsed = Math.max(System.nanoTime() - openedNanos, 1);
+    return new KitchenStats(griddles, queuedPancakes.get(), cookingPancakes.get(), jobs.size(),
+        cookedPancakes.sum(), preparedOrders.sum(), abandonedOrders.sum(),
+        Math.min(1.0, busyNanos.sum() / ((double) elapsed * griddles)));
+  }
+
+  // Stops taking orders and finishes the ones already in the kitchen. Orders still waiting for
+  // the dispatcher stay completed, for takeNextOrderToPrepare.
+  @Override
+  public void close() {
+    pancakeService.removeLifecycleListener(this);
+    incoming.clear();
+    incoming.add(STOP);
+    try {
+      dispatcher.join(TimeUnit.MINUTES.toMillis(1));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    workers.shutdown();
+    try {
+      workers.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void dispatch() {
+    try {
+      UUID orderId;
+      while ((orderId = incoming.take()) != STOP) {
+        try {
+          admit(orderId);
+        } catch (RuntimeException e) {
+          Thread thread = Thread.currentThread();
+          thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // Skips orders that were prepared elsewhere or cancelled while they waited for the dispatcher.
+  private void admit(UUID orderId) throws InterruptedException {
+    if (!pancakeService.findOrderStatus(orderId).equals(Optional.of(Order.Status.Completed))) {
+      return;
+    }
+    Result<List<String>> pancakes = pancakeService.tryViewOrder(orderId);
+    if (!pancakes.isSuccess()) {
+      return;
+    }
+    Job job = new Job(orderId, pancakes.value().size());
+    jobs.put(orderId, job);
+    if (pancakes.value().isEmpty()) {
+      finish(job);
+      return;
+    }
+    queuedPancakes.addAndGet(pancakes.value().size());
+    int handedOut = 0;
+    try {
+      for (String pancake : pancakes.value()) {
+        freeGriddles.acquire();
+        try {
+          workers.execute(() -> cook(job, pancake));
+        } catch (RejectedExecutionException e) {
+          freeGriddles.release();
+          giveUp(job);
+          return;
+        }
+        handedOut++;
+      }
+    } catch (InterruptedException e) {
+      // the order stays completed, so a chef can still take it
+      giveUp(job);
+      throw e;
+    } finally {
+      queuedPancakes.addAndGet(handedOut - pancakes.value().size());
+    }
+  }
+
+  private void cook(Job job, String pancake) {
+    queuedPancakes.decrementAndGet();
+    cookingPancakes.incrementAndGet();
+    long start = System.nanoTime();
+    try {
+      if (!job.abandoned) {
+        griddle.cook(job.orderId, pancake);
+        cookedPancakes.increment();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      job.abandoned = true;
+    } catch (RuntimeException e) {
+      job.abandoned = true;
+    } finally {
+      busyNanos.add(System.nanoTime() - start);
+      cookingPancakes.decrementAndGet();
+      freeGriddles.release();
+    }
+    if (job.remaining.decrementAndGet() == 0) {
+      finish(job);
+    }
+  }
+
+  private void finish(Job job) {
+    jobs.remove(job.orderId, job);
+    if (job.abandoned) {
+      abandonedOrders.increment();
+    } else if (pancakeService.tryPrepareOrder(job.orderId).isSuccess()) {
+      preparedOrders.increment();
+    } else {
+      // cancelled or claimed elsewhere between its last pancake and the status change
+      abandonedOrders.increment();
+    }
+  }
+
+  private void abandon(UUID orderId) {
+    Job job = jobs.get(orderId);
+    if (job != null) {
+      job.abandoned = true;
+    }
+  }
+
+  // Pancakes already handed to the griddles are skipped; the order itself is left as it is.
+  private void giveUp(Job job) {
+    job.abandoned = true;
+    if (jobs.remove(job.orderId, job)) {
+      abandonedOrders.increment();
+    }
+  }
+
+  private static final class Job {
+    private final UUID orderId;
+    private final AtomicInteger remaining;
+    private volatile boolean abandoned;
+
+    private Job(UUID orderId, int pancakes) {
+      this.orderId = orderId;
+      this.remaining = new AtomicInteger(pancakes);
+    }
+  }
+}
@@ -0,0 +1,7 @@
+package org.pancakelab.service;
+
+// queuedPancakes wait for a free griddle, cookingPancakes are on one right now. utilisation is
+// the share of griddle time spent cooking since the kitchen opened, between 0 and 1.
+public record KitchenStats(int griddles, int queuedPancakes, int cookingPancakes, int ordersInKitchen,
+                           long cookedPancakes, long preparedOrders, long abandonedOrders, double utilisation) {
+}
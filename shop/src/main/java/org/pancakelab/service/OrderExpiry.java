@@ -0,0 +1,127 @@
+package org.pancakelab.service;
+
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.model.Order;
+import org.pancakelab.util.HashedTimingWheel;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Gives up on orders that sit in one status for longer than its time to live, so abandoned
+// orders don't keep their pancakes and locks in memory forever. Every lifecycle event restarts
+// the order's timer for the status it is now in, and activity such as adding a pancake counts
+// as an event. Statuses without a TTL never expire.
+public class OrderExpiry implements OrderLifecycleListener, AutoCloseable {
+  private static final int TICKS_PER_WHEEL = 512;
+
+  private final PancakeService pancakeService;
+  private final long[] ttlNanos = new long[Order.Status.values().length];
+  private final LongSupplier clock;
+  private final HashedTimingWheel<UUID, Order.Status> timers;
+  private final ScheduledExecutorService ticker;
+  private final LongAdder expiredOrders = new LongAdder();
+  private final LongAdder failedExpiries = new LongAdder();
+
+  // Checks for due orders once per tick on its own thread.
+  public OrderExpiry(PancakeService pancakeService, Map<Order.Status, Duration> ttls, Duration tick) {
+    this(pancakeService, ttls, tick, System::nanoTime, true);
+  }
+
+  // Runs on the given clock and only expires orders when expireDue() is called, e.g. from a test
+  // or simulation that moves time forward itself.
+  public OrderExpiry(PancakeService pancakeService, Map<Order.Status, Duration> ttls, Duration tick,
+                     LongSupplier clock) {
+    this(pancakeService, ttls, tick, clock, false);
+  }
+
+  private OrderExpiry(PancakeService pancakeService, Map<Order.Status, Duration> ttls, Duration tick,
+                      LongSupplier clock, boolean ownThread) {
+    if (tick.isNegative() || tick.isZero()) {
+      throw new IllegalArgumentException("Tick must be positive but was " + tick);
+    }
+    ttls.forEach((status, ttl) -> {
+      if (ttl.isNegative() || ttl.isZero()) {
+        throw new IllegalArgumentException("TTL for status " + status + " must be positive but was " + ttl);
+      }
+      if (status == Order.Status.Delivered || status == Order.Status.Cancelled) {
+        throw new IllegalArgumentException("Orders in status " + status + " are already gone and can't expire");
+      }
+      ttlNanos[status.ordinal()] = ttl.toNanos();
+    });
+    this.pancakeService = pancakeService;
+    this.clock = clock;
+    this.timers = new HashedTimingWheel<>(tick.toNanos(), TICKS_PER_WHEEL, clock.getAsLong());
+    if (ownThread) {
+      this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "order-expiry");
+        thread.setDaemon(true);
+        return thread;
+      });
+      ticker.scheduleWithFixedDelay(this::expireDue, tick.toNanos(), tick.toNanos(), TimeUnit.NANOSECONDS);
+    } else {
+      this.ticker = null;
+    }
+    pancakeService.addLifecycleListener(this);
+  }
+
+  @Override
+  public void onEvent(OrderLifecycleEvent event) {
+    switch (event.type()) {
+      case Delivered, Cancelled, Expired -> timers.cancel(event.orderId());
+      default -> arm(event.orderId(), event.status());
+    }
+  }
+
+  public int expireDue() {
+    return timers.advance(clock.getAsLong(), this::expire);
+  }
+
+  public int pendingTimers() {
+    return timers.size();
+  }
+
+  public long expiredOrders() {
+    return expiredOrders.sum();
+  }
+
+  public long failedExpiries() {
+    return failedExpiries.sum();
+  }
+
+  @Override
+  public void close() {
+    pancakeService.removeLifecycleListener(this);
+    if (ticker != null) {
+      ticker.shutdownNow();
+    }
+  }
+
+  private void arm(UUID orderId, Order.Status status) {
+    long ttl = ttlNanos[status.ordinal()];
+    if (ttl == 0) {
+      timers.cancel(orderId);
+    } else {
+      timers.schedule(orderId, status, clock.getAsLong() + ttl);
+    }
+  }
+
+  // The timer may be stale when events for one order were delivered out of order; if the order
+  // has moved to another status it simply gets a fresh timer for that status.
+  private void expire(UUID orderId, Order.Status status) {
+    try {
+      if (pancakeService.expireOrder(orderId, status)) {
+        expiredOrders.increment();
+      } else {
+        pancakeService.findOrderStatus(orderId).ifPresent(current -> arm(orderId, current));
+      }
+    } catch (OrderUpdateException | RuntimeException e) {
+      failedExpiries.increment();
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package org.pancakelab.service;
+
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Order;
+
+import java.util.UUID;
+
+// status is the order's status as read when the event was published, which may already be past
+// the transition the event reports if another thread moved the order on in the meantime.
+public record OrderLifecycleEvent(Type type, UUID orderId, Address address, Order.Status status) {
+
+  public enum Type {
+    Started, Updated, Completed, Prepared, Delivered, Cancelled, Expired
+  }
+}
@@ -0,0 +1,8 @@
+package org.pancakelab.service;
+
+// Called after the transition is stored and the order lock released, on the thread that made it.
+// Listeners should hand work off quickly rather than block the caller.
+@FunctionalInterface
+public interface OrderLifecycleListener {
+  void onEvent(OrderLifecycleEvent event);
+}
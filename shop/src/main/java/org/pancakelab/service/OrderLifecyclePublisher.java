@@ -0,0 +1,59 @@
+package org.pancakelab.service;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+
+// Streams lifecycle events to Flow subscribers. Every subscriber gets its own bounded buffer and
+// is fed as fast as it requests; when its buffer is full the event is dropped for that subscriber
+// only, so a stalled dashboard never holds up the thread that changed the order.
+public class OrderLifecyclePublisher implements Flow.Publisher<OrderLifecycleEvent>, OrderLifecycleListener,
+    AutoCloseable {
+
+  private final SubmissionPublisher<OrderLifecycleEvent> publisher;
+  private final LongAdder droppedEvents = new LongAdder();
+
+  public OrderLifecyclePublisher() {
+    this(ForkJoinPool.commonPool(), Flow.defaultBufferSize());
+  }
+
+  public OrderLifecyclePublisher(Executor executor, int bufferCapacity) {
+    this.publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super OrderLifecycleEvent> subscriber) {
+    publisher.subscribe(subscriber);
+  }
+
+  @Override
+  public void onEvent(OrderLifecycleEvent event) {
+    if (!publisher.hasSubscribers()) {
+      return;
+    }
+    publisher.offer(event, (subscriber, dropped) -> {
+      droppedEvents.increment();
+      return false;
+    });
+  }
+
+  public int subscribers() {
+    return publisher.getNumberOfSubscribers();
+  }
+
+  public long droppedEvents() {
+    return droppedEvents.sum();
+  }
+
+  // Largest number of events any subscriber is currently behind by.
+  public int maxLag() {
+    return publisher.estimateMaximumLag();
+  }
+
+  @Override
+  public void close() {
+    publisher.close();
+  }
+}
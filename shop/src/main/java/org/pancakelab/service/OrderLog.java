@@ -0,0 +1,78 @@
+package org.pancakelab.service;
+
+import org.pancakelab.model.Order;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.service.log.OrderEvent;
+import org.pancakelab.service.log.OrderEventSink;
+import org.pancakelab.service.log.OrderEventWriter;
+import org.pancakelab.service.log.OverflowPolicy;
+import org.pancakelab.service.log.RecentLinesSink;
+
+import java.util.List;
+import java.util.UUID;
+
+public class OrderLog implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int DEFAULT_RETAINED_LINES = 1024;
+
+    private final OrderEventWriter writer;
+
+    public OrderLog() {
+        this(new RecentLinesSink(DEFAULT_RETAINED_LINES), DEFAULT_CAPACITY, OverflowPolicy.Block);
+    }
+
+    public OrderLog(OrderEventSink sink, int capacity, OverflowPolicy overflowPolicy) {
+        this.writer = new OrderEventWriter(sink, capacity, overflowPolicy);
+    }
+
+    public void logAddPancake(Order order, Pancake pancake, int pancakesInOrder) {
+        writer.append(OrderEvent.Operation.AddPancake, order.getId(), pancake.getId(), null,
+            pancake.getDescription(), 1, pancakesInOrder, order.getAddress());
+    }
+
+    public void logRemovePancakes(Order order, Pancake pancake, int pancakesInOrder) {
+        writer.append(OrderEvent.Operation.RemovePancake, order.getId(), pancake.getId(), null,
+            pancake.getDescription(), 1, pancakesInOrder, order.getAddress());
+    }
+
+    // One AddPancakes record for the whole batch, carrying each pancake's id and recipe as they were
+    // when logged; the journal reader expands it back into AddPancake and AddIngredient records.
+    public void logAddPancakes(Order order, List<Pancake> pancakes, int pancakesInOrder) {
+        if (pancakes.isEmpty()) {
+            return;
+        }
+        UUID[] pancakeIds = new UUID[pancakes.size()];
+        long[] recipes = new long[pancakes.size()];
+        for (int i = 0; i < pancakeIds.length; i++) {
+            pancakeIds[i] = pancakes.get(i).getId();
+            recipes[i] = pancakes.get(i).getPackedIngredients();
+        }
+        writer.appendPancakes(order.getId(), pancakeIds, recipes, pancakesInOrder, order.getAddress());
+    }
+
+    public void logAddIngredient(Pancake pancake, Pancake.Ingredient ingredient) {
+        writer.append(OrderEvent.Operation.AddIngredient, pancake.getOrderId(), pancake.getId(), ingredient,
+            null, 1, 0, null);
+    }
+
+    public void logCancelOrder(Order order, int pancakesInOrder) {
+        writer.append(OrderEvent.Operation.CancelOrder, order.getId(), null, null, null, 0, pancakesInOrder, order.getAddress());
+    }
+
+    public void logExpireOrder(Order order, int pancakesInOrder) {
+        writer.append(OrderEvent.Operation.ExpireOrder, order.getId(), null, null, null, 0, pancakesInOrder, order.getAddress());
+    }
+
+    public void logDeliverOrder(Order order, int pancakesInOrder) {
+        writer.append(OrderEvent.Operation.DeliverOrder, order.getId(), null, null, null, 0, pancakesInOrder, order.getAddress());
+    }
+
+    public long droppedEvents() {
+        return writer.droppedEvents();
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+    }
+}
@@ -0,0 +1,615 @@
+package org.pancakelab.service;
+
+import org.pancakelab.exception.IncorrectOrderStatusException;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.exception.PancakeNotFoundException;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Delivery;
+import org.pancakelab.model.DeliveryManifest;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.PackedIngredients;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.service.metrics.MetricsSnapshot;
+import org.pancakelab.service.metrics.ServiceMetrics;
+import org.pancakelab.service.metrics.ServiceOperation;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.util.EntityLockManager;
+import org.pancakelab.util.IdGenerator;
+import org.pancakelab.util.RandomIdGenerator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+public class PancakeService implements AutoCloseable {
+
+  private final AddressValidator addressValidator;
+  private final PancakeValidator pancakeValidator;
+  private final OrderRepository orderRepository;
+  private final PancakeRepository pancakeRepository;
+  private final OrderLog orderLog;
+
+  private final EntityLockManager<UUID> orderLockManager;
+  private final EntityLockManager<UUID> pancakeLockManager;
+  private final IdGenerator idGenerator;
+  private final PreparationQueue preparationQueue;
+  private final ServiceMetrics metrics;
+  private final List<OrderLifecycleListener> lifecycleListeners = new CopyOnWriteArrayList<>();
+  private final AtomicReference<OrderLifecyclePublisher> lifecyclePublisher = new AtomicReference<>();
+
+  public PancakeService(AddressValidator addressValidator,
+                        PancakeValidator pancakeValidator,
+                        OrderRepository orderRepository,
+                        PancakeRepository pancakeRepository,
+                        OrderLog orderLog) {
+    this(addressValidator, pancakeValidator, orderRepository, pancakeRepository, orderLog,
+        new EntityLockManager<>(), new EntityLockManager<>(), new RandomIdGenerator(), new PreparationQueue(),
+        ServiceMetrics.enabled());
+  }
+
+  public PancakeService(AddressValidator addressValidator,
+                        PancakeValidator pancakeValidator,
+                        OrderRepository orderRepository,
+                        PancakeRepository pancakeRepository,
+                        OrderLog orderLog,
+                        EntityLockManager<UUID> orderLockManager,
+                        EntityLockManager<UUID> pancakeLockManager,
+                        IdGenerator idGenerator,
+                        PreparationQueue preparationQueue,
+                        ServiceMetrics metrics) {
+    this.addressValidator = addressValidator;
+    this.pancakeValidator = pancakeValidator;
+    this.orderRepository = orderRepository;
+    this.pancakeRepository = pancakeRepository;
+    this.orderLog = orderLog;
+    this.orderLockManager = orderLockManager;
+    this.pancakeLockManager = pancakeLockManager;
+    this.idGenerator = idGenerator;
+    this.preparationQueue = preparationQueue;
+    this.metrics = metrics;
+    preparationQueue.restore(orderRepository.findCompleted().size());
+  }
+
+  public MetricsSnapshot metrics() {
+    return metrics.snapshot();
+  }
+
+  public void addLifecycleListener(OrderLifecycleListener listener) {
+    lifecycleListeners.add(listener);
+  }
+
+  public void removeLifecycleListener(OrderLifecycleListener listener) {
+    lifecycleListeners.remove(listener);
+  }
+
+  // Created on first use, so a service nobody watches never pays for the publisher.
+  public Flow.Publisher<OrderLifecycleEvent> lifecycleEvents() {
+    OrderLifecyclePublisher publisher = lifecyclePublisher.get();
+    if (publisher != null) {
+      return publisher;
+    }
+    OrderLifecyclePublisher created = new OrderLifecyclePublisher();
+    if (lifecyclePublisher.compareAndSet(null, created)) {
+      addLifecycleListener(created);
+      return created;
+    }
+    created.close();
+    return lifecyclePublisher.get();
+  }
+
+  // The service owns the order log it was given: closing it flushes and stops the log writer,
+  // and completes the lifecycle publisher's subscribers.
+  @Override
+  public void close() {
+    OrderLifecyclePublisher publisher = lifecyclePublisher.get();
+    if (publisher != null) {
+      publisher.close();
+    }
+    orderLog.close();
+  }
+
+  public UUID startOrder(Address address) {
+    long start = metrics.start();
+    try {
+      addressValidator.validate(address);
+      Order order = new Order(idGenerator.next(), address, Order.Status.Pending);
+      orderRepository.save(order);
+      publish(OrderLifecycleEvent.Type.Started, order);
+      return metrics.succeeded(ServiceOperation.StartOrder, start, order.getId());
+    } catch (Exception e) {
+      metrics.failed(ServiceOperation.StartOrder, start, e);
+      throw e;
+    }
+  }
+
+  public UUID addPancake(UUID orderId) throws OrderUpdateException {
+    long start = metrics.start();
+    try {
+      UUID pancakeId = orderLockManager.withLock(orderId, id -> {
+        Order order = pendingOrder(orderId);
+        int pancakesInOrder = pancakeRepository.countByOrderId(orderId);
+        Pancake pancake = new Pancake(idGenerator.next(), order.getId());
+        orderLog.logAddPancake(order, pancake, pancakesInOrder);
+        pancakeRepository.save(pancake);
+        return pancake.getId();
+      });
+      touched(orderId);
+      return metrics.succeeded(ServiceOperation.AddPancake, start, pancakeId);
+    } catch (Exception e) {
+      metrics.failed(ServiceOperation.AddPancake, start, e);
+      throw e;
+    }
+  }
+
+  public List<UUID> addPancakes(UUID orderId, List<List<Pancake.Ingredient>> recipes) throws OrderUpdateException {
+    long start = metrics.start();
+    try {
+      List<Pancake> pancakes = new ArrayList<>(recipes.size());
+      for (List<Pancake.Ingredient> recipe : recipes) {
+        Pancake pancake = new Pancake(idGenerator.next(), orderId);
+        recipe.forEach(pancake::addIngredient);
+        pancakeValidator.validate(pancake);
+        pancakes.add(pancake);
+      }
+      List<UUID> pancakeIds = orderLockManager.withLock(orderId, id -> {
+        Order order = pendingOrder(orderId);
+        int pancakesInOrder = pancakeRepository.countByOrderId(orderId);
+        pancakeRepository.saveAll(pancakes);
+        orderLog.logAddPancakes(order, pancakes, pancakesInOrder);
+        return pancakes.stream().map(Pancake::getId).toList();
+      });
+      touched(orderId);
+      return metrics.succeeded(ServiceOperation.AddPancakes, start, pancakeIds);
+    } catch (Exception e) {
+      metrics.failed(ServiceOperation.AddPancakes, start, e);
+      throw e;
+    }
+  }
+
+  public UUID removePancake(UUID orderId, UUID pancakeId) throws OrderUpdateException {
+    long start = metrics.start();
+    try {
+      UUID removed = orderLockManager.withLock(orderId, id -> {
+        Order order = pendingOrder(orderId);
+        Pancake pancake = pancakeRepository.find(pancakeId).orElseThrow(() -> new PancakeNotFoundException(pancakeId));
+        if (!pancake.getOrderId().equals(order.getId())) {
+          throw new IllegalArgumentException("Pancake with id " + pancakeId + " does not belong to order " + orderId);
+        }
+        int pancakesInOrder = pancakeRepository.countByOrderId(orderId);
+        orderLog.logRemovePancakes(order, pancake, pancakesInOrder);
+        return deletePancake(pancakeId);
+      });
+      touched(orderId);
+      return metrics.succeeded(ServiceOperation.RemovePancake, start, removed);
+    } catch (Exception e) {
+      metrics.failed(ServiceOperation.RemovePancake, start, e);
+      throw e;
+    }
+  }
+
+  // Taken under the lock of the pancake's order, like the other pancake changes, so a recipe is
+  // fixed once its order has left Pending.
+  public UUID addIngredient(UUID pancakeId, Pancake.Ingredient ingredient) throws OrderUpdateException {
+    long start = metrics.start();
+    try {
+      UUID orderId = pancakeRepository.find(pancakeId)
+          .orElseThrow(() -> new PancakeNotFoundException(pancakeId))
+          .getOrderId();
+      Pancake updated = orderLockManager.withLock(orderId, id -> {
+        pendingOrder(id);
+        Pancake pancake = pancakeRepository.find(pancakeId).orElseThrow(() -> new PancakeNotFoundException(pancakeId));
+        pancakeValidator.validateIngredients(PackedIngredients.add(pancake.getPackedIngredients(), ingredient));
+        pancake.addIngredient(ingredient);
+        orderLog.logAddIngredient(pancake, ingredient);
+        if (!pancakeRepository.update(pancake)) {
+          throw new PancakeNotFoundException(pancakeId);
+        }
+        return pancake;
+      });
+      touched(orderId);
+      return metrics.succeeded(ServiceOperation.AddIngredient, start, updated.getId());
+    } catch (Exception e) {
+      metrics.failed(ServiceOperation.AddIngredient, start, e);
+      throw e;
+    }
+  }
+
+  public List<String> viewOrder(UUID orderId) throws OrderNotFoundException {
+    Result<List<String>> view = tryViewOrder(orderId);
+    if (!view.isSuccess()) {
+      throw new OrderNotFoundException(orderId);
+    }
+    return view.value();
+  }
+
+  public Result<List<String>> tryViewOrder(UUID orderId) {
+    long start = metrics.start();
+    try {
+      if (orderRepository.find(orderId).isEmpty()) {
+        return rejected(ServiceOperation.ViewOrder, start, Result.orderNotFound(orderId));
+      }
+      Collection<Pancake> pancakes = pancakeRepository.findByOrderId(orderId);
+      List<String> descriptions = pancakes.stream()
+          .map(Pancake::getDescription)
+          .toList();
+      return metrics.succeeded(ServiceOperation.ViewOrder, start, Result.success(descriptions));
+    } catch (Exception e) {
+      metrics.failed(ServiceOperation.ViewOrder, start, e);
+      throw e;
+    }
+  }
+
+  public UUID cancelOrder(UUID orderId) throws OrderUpdateException {
+    long start = metrics.start();
+    try {
+      // still under the order lock, so pancakes can't be added to the order while it is torn down
+      Order[] cancelled = new Order[1];
+      Order.Status previous = orderLockManager.withLock(orderId, id -> {
+        Order order = orderRepository.find(id).orElseThrow(() -> new OrderNotFoundException(orderId));
+        Order.Status status = markCancelled(order);
+        List<Pancake> pancakes = pancakeRepository.removeByOrderId(id);
+        orderLog.logCancelOrder(order, pancakes.size());
+
+        forgetPancakes(pancakes);
+        deleteOrder(id);
+        cancelled[0] = order;
+        return status;
+      });
+      if (previous == Order.Status.Completed) {
+        preparationQueue.withdrawn();
+      }
+      publish(OrderLifecycleEvent.Type.Cancelled, cancelled[0]);
+      return metrics.succeeded(ServiceOperation.CancelOrder, start, orderId);
+    } catch (Exception e) {
+      metrics.failed(ServiceOperation.CancelOrder, start, e);
+      throw e;
+    }
+  }
+
+  // Drops an order that has sat in the given status for too long, together with its pancakes and
+  // locks. Returns false if it has moved on (or is gone) in the meantime.
+  public boolean expireOrder(UUID orderId, Order.Status status) throws OrderUpdateException {
+    long start = metrics.start();
+    try {
+      Order expired = orderLockManager.withLock(orderId, id -> {
+        Optional<Order> order = orderRepository.find(id);
+        if (order.isEmpty() || !order.get().compareAndSetStatus(status, Order.Status.Cancelled)) {
+          return null;
+        }
+        List<Pancake> pancakes = pancakeRepository.removeByOrderId(id);
+        orderLog.logExpireOrder(order.get(), pancakes.size());
+        forgetPancakes(pancakes);
+        deleteOrder(id);
+        return order.get();
+      });
+      if (expired != null) {
+        if (status == Order.Status.Completed) {
+          preparationQueue.withdrawn();
+        }
+        publish(OrderLifecycleEvent.Type.Expired, expired);
+      }
+      return metrics.succeeded(ServiceOperation.ExpireOrder, start, expired != null);
+    } catch (Exception e) {
+      metrics.failed(ServiceOperation.ExpireOrder, start, e);
+      throw e;
+    }
+  }
+
+  // Blocks while the kitchen already has as many completed orders waiting as the preparation
+  // queue allows; that wait counts towards the recorded latency.
+  public UUID completeOrder(UUID orderId) throws OrderUpdateException {
+    return tryCompleteOrder(orderId).orElseThrow();
+  }
+
+  public Result<UUID> tryCompleteOrder(UUID orderId) {
+    long start = metrics.start();
+    try {
+      // checked before waiting for a kitchen slot, so a missing or already completed order
+      // is turned away straight away instead of queueing behind the full kitchen
+      Result<Order> pending = checkStatus(orderId, Order.Status.Pending);
+      if (!pending.isSuccess()) {
+        return rejected(ServiceOperation.CompleteOrder, start, pending.miss());
+      }
+      if (!reserveKitchenSlot()) {
+        return rejected(ServiceOperation.CompleteOrder, start, Result.interrupted(orderId));
+      }
+      return completeReserved(orderId, start);
+    } catch (Exception e) {
+      metrics.failed(ServiceOperation.CompleteOrder, start, e);
+      throw e;
+    }
+  }
+
+  // For a caller that already waited for the order's kitchen slot itself, e.g. a shard whose
+  // writer thread must never block on a full kitchen. The slot is given back on a miss.
+  Result<UUID> tryCompleteReservedOrder(UUID orderId) {
+    long start = metrics.start();
+    try {
+      return completeReserved(orderId, start);
+    } catch (Exception e) {
+      metrics.failed(ServiceOperation.CompleteOrder, start, e);
+      throw e;
+    }
+  }
+
+  private Result<UUID> completeReserved(UUID orderId, long start) {
+    try {
+      // under the order lock, so pancakes can't be added or removed once the order is completed
+      Result<Order> completed = withOrderLock(orderId, () -> {
+        Result<Order> transition = tryTransition(orderId, Order.Status.Pending, Order.Status.Completed);
+        if (transition.isSuccess() && !orderRepository.saveIfPresent(transition.value())) {
+          return Result.orderNotFound(orderId);
+        }
+        return transition;
+      });
+      if (!completed.isSuccess()) {
+        preparationQueue.cancelReservation();
+        return rejected(ServiceOperation.CompleteOrder, start, completed.miss());
+      }
+      preparationQueue.published();
+      publish(OrderLifecycleEvent.Type.Completed, completed.value());
+      return metrics.succeeded(ServiceOperation.CompleteOrder, start, Result.success(completed.value().getId()));
+    } catch (RuntimeException e) {
+      preparationQueue.cancelReservation();
+      throw e;
+    }
+  }
+
+  public Optional<Order.Status> findOrderStatus(UUID orderId) {
+    return orderRepository.find(orderId).map(Order::getStatus);
+  }
+
+  public List<UUID> listCompletedOrders() {
+    return orderRepository.findCompleted();
+  }
+
+  public UUID prepareOrder(UUID orderId) throws OrderUpdateException {
+    return tryPrepareOrder(orderId).orElseThrow();
+  }
+
+  public Result<UUID> tryPrepareOrder(UUID orderId) {
+    long start = metrics.start();
+    try {
+      Result<Order> prepared = markPrepared(orderId);
+      if (!prepared.isSuccess()) {
+        return rejected(ServiceOperation.PrepareOrder, start, prepared.miss());
+      }
+      preparationQueue.withdrawn();
+      publish(OrderLifecycleEvent.Type.Prepared, prepared.value());
+      return metrics.succeeded(ServiceOperation.PrepareOrder, start, Result.success(prepared.value().getId()));
+    } catch (Exception e) {
+      metrics.failed(ServiceOperation.PrepareOrder, start, e);
+      throw e;
+    }
+  }
+
+  // Hands the oldest completed order to exactly one caller, moving it to Prepared, and waits
+  // for one to arrive if there is none.
+  public UUID takeNextOrderToPrepare() throws InterruptedException {
+    while (true) {
+      preparationQueue.awaitOrder();
+      Optional<UUID> claimed = claimOldestCompleted();
+      if (claimed.isPresent()) {
+        return claimed.get();
+      }
+    }
+  }
+
+  public Optional<UUID> takeNextOrderToPrepare(Duration timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (preparationQueue.awaitOrder(deadline - System.nanoTime())) {
+      Optional<UUID> claimed = claimOldestCompleted();
+      if (claimed.isPresent()) {
+        return claimed;
+      }
+    }
+    return Optional.empty();
+  }
+
+  public List<UUID> listPreparedOrders() {
+    return orderRepository.findPrepared();
+  }
+
+  public Delivery deliverOrder(UUID orderId) throws OrderUpdateException {
+    return tryDeliverOrder(orderId).orElseThrow();
+  }
+
+  public Result<Delivery> tryDeliverOrder(UUID orderId) {
+    long start = metrics.start();
+    try {
+      Result<Order> delivered = tryTransition(orderId, Order.Status.Prepared, Order.Status.Delivered);
+      if (!delivered.isSuccess()) {
+        return rejected(ServiceOperation.DeliverOrder, start, delivered.miss());
+      }
+      Delivery delivery = handOver(delivered.value());
+      publish(OrderLifecycleEvent.Type.Delivered, delivery.getOrder());
+      return metrics.succeeded(ServiceOperation.DeliverOrder, start, Result.success(delivery));
+    } catch (Exception e) {
+      metrics.failed(ServiceOperation.DeliverOrder, start, e);
+      throw e;
+    }
+  }
+
+  // Delivers whatever is still prepared out of a batch and skips the rest instead of failing the
+  // whole trip. The manifest lists stops by building, then room.
+  public DeliveryManifest deliverOrders(Collection<UUID> orderIds) throws OrderUpdateException {
+    long start = metrics.start();
+    try {
+      List<Delivery> deliveries = new ArrayList<>(orderIds.size());
+      List<UUID> skipped = new ArrayList<>();
+      for (UUID orderId : orderIds) {
+        Optional<Order> order = orderRepository.find(orderId);
+        if (order.isPresent() && order.get().compareAndSetStatus(Order.Status.Prepared, Order.Status.Delivered)) {
+          deliveries.add(handOver(order.get()));
+        } else {
+          skipped.add(orderId);
+        }
+      }
+      deliveries.forEach(d -> publish(OrderLifecycleEvent.Type.Delivered, d.getOrder()));
+      deliveries.sort(Comparator.comparingInt((Delivery d) -> d.getOrder().getAddress().buildingNumber())
+          .thenComparingInt(d -> d.getOrder().getAddress().roomNumber()));
+      return metrics.succeeded(ServiceOperation.DeliverOrders, start, new DeliveryManifest(deliveries, skipped));
+    } catch (Exception e) {
+      metrics.failed(ServiceOperation.DeliverOrders, start, e);
+      throw e;
+    }
+  }
+
+  // The order is torn down under its lock, like a cancellation, so it can't interleave with a
+  // pancake being added or removed.
+  private Delivery handOver(Order order) {
+    List<Pancake> pancakes = withOrderLock(order.getId(), () -> {
+      List<Pancake> removed = pancakeRepository.removeByOrderId(order.getId());
+      orderLog.logDeliverOrder(order, removed.size());
+      forgetPancakes(removed);
+      deleteOrder(order.getId());
+      return removed;
+    });
+    List<String> viewOrder = pancakes.stream()
+        .map(Pancake::getDescription)
+        .toList();
+    return new Delivery(order, viewOrder);
+  }
+
+  // Chefs race for the head of the completed queue; the losers of the compare-and-set find it
+  // already prepared and move on to the next entry.
+  private Optional<UUID> claimOldestCompleted() {
+    Optional<UUID> next;
+    while ((next = orderRepository.findOldestByStatus(Order.Status.Completed)).isPresent()) {
+      // a miss means it was prepared or cancelled by someone else in the meantime
+      Result<Order> claimed = markPrepared(next.get());
+      if (claimed.isSuccess()) {
+        preparationQueue.claimed();
+        publish(OrderLifecycleEvent.Type.Prepared, claimed.value());
+        return Optional.of(claimed.value().getId());
+      }
+    }
+    return Optional.empty();
+  }
+
+  private Result<Order> markPrepared(UUID orderId) {
+    Result<Order> prepared = tryTransition(orderId, Order.Status.Completed, Order.Status.Prepared);
+    if (prepared.isSuccess()) {
+      orderRepository.saveIfPresent(prepared.value());
+    }
+    return prepared;
+  }
+
+  // Kitchen and delivery transitions take no lock: of two racing callers only one wins the
+  // compare-and-set, and the other fails straight away instead of waiting for its turn. Only
+  // leaving Pending also takes the order lock, to fence off the pancake changes.
+  private Result<Order> tryTransition(UUID orderId, Order.Status expected, Order.Status next) {
+    Optional<Order> order = orderRepository.find(orderId);
+    if (order.isEmpty()) {
+      return Result.orderNotFound(orderId);
+    }
+    if (!order.get().compareAndSetStatus(expected, next)) {
+      return Result.incorrectOrderStatus(orderId, expected, order.get().getStatus());
+    }
+    return Result.success(order.get());
+  }
+
+  private Result<Order> checkStatus(UUID orderId, Order.Status expected) {
+    Optional<Order> order = orderRepository.find(orderId);
+    if (order.isEmpty()) {
+      return Result.orderNotFound(orderId);
+    }
+    Order.Status status = order.get().getStatus();
+    if (status != expected) {
+      return Result.incorrectOrderStatus(orderId, expected, status);
+    }
+    return Result.success(order.get());
+  }
+
+  // Pancakes may only change while the order is still pending; callers hold the order lock.
+  private Order pendingOrder(UUID orderId) throws OrderUpdateException {
+    return checkStatus(orderId, Order.Status.Pending).orElseThrow();
+  }
+
+  // withLock can't tell that these actions throw no checked exception.
+  private <T> T withOrderLock(UUID orderId, Supplier<T> action) {
+    try {
+      return orderLockManager.withLock(orderId, id -> action.get());
+    } catch (OrderUpdateException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private <T> Result<T> rejected(ServiceOperation operation, long start, Result<T> result) {
+    metrics.rejected(operation, start, result.outcome());
+    return result;
+  }
+
+  // Any order that is not yet delivered can be cancelled; returns the status it was taken from.
+  private Order.Status markCancelled(Order order) throws IncorrectOrderStatusException {
+    Order.Status status;
+    do {
+      status = order.getStatus();
+      if (!status.canMoveTo(Order.Status.Cancelled)) {
+        throw IncorrectOrderStatusException.cannotMove(order.getId(), status, Order.Status.Cancelled);
+      }
+    } while (!order.compareAndSetStatus(status, Order.Status.Cancelled));
+    return status;
+  }
+
+  private boolean reserveKitchenSlot() {
+    try {
+      preparationQueue.reserve();
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  // Activity on an order only needs announcing when someone listens, e.g. to push back its expiry.
+  private void touched(UUID orderId) {
+    if (!lifecycleListeners.isEmpty()) {
+      orderRepository.find(orderId).ifPresent(order -> publish(OrderLifecycleEvent.Type.Updated, order));
+    }
+  }
+
+  private void publish(OrderLifecycleEvent.Type type, Order order) {
+    if (lifecycleListeners.isEmpty()) {
+      return;
+    }
+    OrderLifecycleEvent event = new OrderLifecycleEvent(type, order.getId(), order.getAddress(), order.getStatus());
+    for (OrderLifecycleListener listener : lifecycleListeners) {
+      try {
+        listener.onEvent(event);
+      } catch (RuntimeException e) {
+        // the transition already happened; a broken listener must not turn it into a failure
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+      }
+    }
+  }
+
+  private UUID deleteOrder(UUID orderId) {
+    orderRepository.remove(orderId);
+    orderLockManager.removeLock(orderId);
+    return orderId;
+  }
+
+  private void forgetPancakes(List<Pancake> pancakes) {
+    pancakeLockManager.removeLocks(pancakes.stream().map(Pancake::getId).toList());
+  }
+
+  private UUID deletePancake(UUID pancakeId) {
+    pancakeRepository.remove(pancakeId);
+    pancakeLockManager.removeLock(pancakeId);
+    return pancakeId;
+  }
+}
@@ -0,0 +1,83 @@
+package org.pancakelab.service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Bookkeeping for the orders waiting for a chef. The orders themselves stay in the repository's
+// completed queue; this only bounds how many may wait there and wakes chefs when one arrives.
+public class PreparationQueue {
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  private final int capacity;
+  private final Slots freeSlots;
+  private final Semaphore waitingOrders = new Semaphore(0);
+
+  public PreparationQueue() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public PreparationQueue(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive but was " + capacity);
+    }
+    this.capacity = capacity;
+    this.freeSlots = new Slots(capacity);
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  public int size() {
+    return capacity - freeSlots.availablePermits();
+  }
+
+  // Orders already completed when the service starts (e.g. recovered from disk) count against
+  // the capacity straight away, even if that leaves the queue over-full until chefs catch up.
+  void restore(int completedOrders) {
+    freeSlots.shrink(completedOrders);
+    waitingOrders.release(completedOrders);
+  }
+
+  void reserve() throws InterruptedException {
+    freeSlots.acquire();
+  }
+
+  void cancelReservation() {
+    freeSlots.release();
+  }
+
+  void published() {
+    waitingOrders.release();
+  }
+
+  void awaitOrder() throws InterruptedException {
+    waitingOrders.acquire();
+  }
+
+  boolean awaitOrder(long timeoutNanos) throws InterruptedException {
+    return waitingOrders.tryAcquire(Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS);
+  }
+
+  // A chef took the order after being woken, so its wake-up permit is already spent.
+  void claimed() {
+    freeSlots.release();
+  }
+
+  // The order left the queue some other way (prepared by id or cancelled). If no permit is left
+  // to take, a woken chef is already holding it and will find the queue one order shorter.
+  void withdrawn() {
+    freeSlots.release();
+    waitingOrders.tryAcquire();
+  }
+
+  private static final class Slots extends Semaphore {
+    Slots(int permits) {
+      super(permits, true);
+    }
+
+    void shrink(int permits) {
+      reducePermits(permits);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package org.pancakelab.service;
+
+import org.pancakelab.exception.IncorrectOrderStatusException;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.exception.PancakeNotFoundException;
+import org.pancakelab.model.Order;
+import org.pancakelab.service.metrics.Outcome;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+// What the try* calls of PancakeService return instead of throwing: the value, or the outcome
+// that stopped the call along with the ids and statuses involved. A miss costs this one object
+// and no stack trace or message, so callers that poll or retry racy transitions can afford to
+// miss often. orElseThrow() turns a miss into the exception the throwing API has always used.
+public final class Result<T> {
+  private final Outcome outcome;
+  private final T value;
+  private final UUID id;
+  private final Order.Status expected;
+  private final Order.Status actual;
+
+  private Result(Outcome outcome, T value, UUID id, Order.Status expected, Order.Status actual) {
+    this.outcome = outcome;
+    this.value = value;
+    this.id = id;
+    this.expected = expected;
+    this.actual = actual;
+  }
+
+  static <T> Result<T> success(T value) {
+    return new Result<>(Outcome.Success, value, null, null, null);
+  }
+
+  static <T> Result<T> orderNotFound(UUID orderId) {
+    return new Result<>(Outcome.OrderNotFound, null, orderId, null, null);
+  }
+
+  static <T> Result<T> incorrectOrderStatus(UUID orderId, Order.Status expected, Order.Status actual) {
+    return new Result<>(Outcome.IncorrectOrderStatus, null, orderId, expected, actual);
+  }
+
+  static <T> Result<T> interrupted(UUID orderId) {
+    return new Result<>(Outcome.Interrupted, null, orderId, null, null);
+  }
+
+  public boolean isSuccess() {
+    return outcome == Outcome.Success;
+  }
+
+  public Outcome outcome() {
+    return outcome;
+  }
+
+  public T value() {
+    if (!isSuccess()) {
+      throw new IllegalStateException("No value for a call that ended in " + outcome);
+    }
+    return value;
+  }
+
+  // The order (or pancake) the call failed on; null on success.
+  public UUID id() {
+    return id;
+  }
+
+  public Order.Status expectedStatus() {
+    return expected;
+  }
+
+  public Order.Status actualStatus() {
+    return actual;
+  }
+
+  public <U> Result<U> map(Function<? super T, ? extends U> mapper) {
+    return isSuccess() ? success(mapper.apply(value)) : miss();
+  }
+
+  // A miss carries no value, so the same instance can stand in for a result of any type.
+  @SuppressWarnings("unchecked")
+  <U> Result<U> miss() {
+    if (isSuccess()) {
+      throw new IllegalStateException("Not a miss: " + this);
+    }
+    return (Result<U>) this;
+  }
+
+  public T orElseThrow() throws OrderUpdateException {
+    switch (outcome) {
+      case Success -> {
+        return value;
+      }
+      case OrderNotFound -> throw new OrderNotFoundException(id);
+      case PancakeNotFound -> throw new PancakeNotFoundException(id);
+      case IncorrectOrderStatus -> throw new IncorrectOrderStatusException(id, expected, actual);
+      case Interrupted -> throw new OrderUpdateException("Interrupted while waiting to queue order " + id + " for the kitchen");
+      default -> throw new OrderUpdateException("Call on " + id + " ended in " + outcome);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return isSuccess() ? "Success[" + value + "]" : outcome + "[" + id + "]";
+  }
+}
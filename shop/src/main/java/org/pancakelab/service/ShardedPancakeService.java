@@ -0,0 +1,280 @@
+package org.pancakelab.service;
+
+import org.pancakelab.exception.IncorrectOrderStatusException;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Delivery;
+import org.pancakelab.model.DeliveryManifest;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.metrics.ServiceMetrics;
+import org.pancakelab.util.EntityLockManager;
+import org.pancakelab.util.ShardTaggingIdGenerator;
+import org.pancakelab.util.TimeOrderedIdGenerator;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.IngredientCatalog;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+// Splits the shop into shards by building. Each shard has its own repositories, order log and
+// writer thread; every mutation is queued on the writer's mailbox, so a shard's maps and locks
+// only ever see one writing thread. Reads go straight to the shard's concurrent repositories.
+// Orders and pancakes carry their shard in their ID, so later calls find the way back by ID.
+public class ShardedPancakeService implements AutoCloseable {
+
+  private static final Comparator<Delivery> BY_STOP =
+      Comparator.comparingInt((Delivery d) -> d.getOrder().getAddress().buildingNumber())
+          .thenComparingInt(d -> d.getOrder().getAddress().roomNumber());
+
+  private final Shard[] shards;
+  private final PancakeValidator pancakeValidator = new PancakeValidator();
+
+  public ShardedPancakeService(int shards) {
+    this(shards, shard -> new OrderLog());
+  }
+
+  public ShardedPancakeService(int shards, IntFunction<OrderLog> orderLogs) {
+    this(shards, PreparationQueue.DEFAULT_CAPACITY, orderLogs);
+  }
+
+  // The kitchen capacity is shared out between the shards, each holding at least one order.
+  public ShardedPancakeService(int shards, int kitchenCapacity, IntFunction<OrderLog> orderLogs) {
+    if (shards < 1 || shards > ShardTaggingIdGenerator.MAX_SHARDS) {
+      throw new IllegalArgumentException(
+          "Shard count must be between 1 and " + ShardTaggingIdGenerator.MAX_SHARDS + " but was " + shards);
+    }
+    if (kitchenCapacity < shards) {
+      throw new IllegalArgumentException(
+          "Kitchen capacity must be at least the shard count " + shards + " but was " + kitchenCapacity);
+    }
+    this.shards = new Shard[shards];
+    for (int i = 0; i < shards; i++) {
+      int capacity = kitchenCapacity / shards + (i < kitchenCapacity % shards ? 1 : 0);
+      this.shards[i] = new Shard(i, orderLogs.apply(i), pancakeValidator, capacity);
+    }
+  }
+
+  // Every shard validates against the same catalog, so a swap reaches all of them at once.
+  public void useCatalog(IngredientCatalog catalog) {
+    pancakeValidator.useCatalog(catalog);
+  }
+
+  public int shards() {
+    return shards.length;
+  }
+
+  public void addLifecycleListener(OrderLifecycleListener listener) {
+    for (Shard shard : shards) {
+      shard.service.addLifecycleListener(listener);
+    }
+  }
+
+  public void removeLifecycleListener(OrderLifecycleListener listener) {
+    for (Shard shard : shards) {
+      shard.service.removeLifecycleListener(listener);
+    }
+  }
+
+  public UUID startOrder(Address address) throws OrderUpdateException {
+    Shard shard = address == null ? shards[0] : shards[Math.floorMod(address.buildingNumber(), shards.length)];
+    return shard.call(() -> shard.service.startOrder(address));
+  }
+
+  public UUID addPancake(UUID orderId) throws OrderUpdateException {
+    Shard shard = shardOf(orderId);
+    return shard.call(() -> shard.service.addPancake(orderId));
+  }
+
+  public List<UUID> addPancakes(UUID orderId, List<List<Pancake.Ingredient>> recipes) throws OrderUpdateException {
+    Shard shard = shardOf(orderId);
+    return shard.call(() -> shard.service.addPancakes(orderId, recipes));
+  }
+
+  public UUID removePancake(UUID orderId, UUID pancakeId) throws OrderUpdateException {
+    Shard shard = shardOf(orderId);
+    return shard.call(() -> shard.service.removePancake(orderId, pancakeId));
+  }
+
+  public UUID addIngredient(UUID pancakeId, Pancake.Ingredient ingredient) throws OrderUpdateException {
+    Shard shard = shardOf(pancakeId);
+    return shard.call(() -> shard.service.addIngredient(pancakeId, ingredient));
+  }
+
+  public List<String> viewOrder(UUID orderId) throws OrderUpdateException {
+    return shardOf(orderId).service.viewOrder(orderId);
+  }
+
+  public UUID cancelOrder(UUID orderId) throws OrderUpdateException {
+    Shard shard = shardOf(orderId);
+    return shard.call(() -> shard.service.cancelOrder(orderId));
+  }
+
+  // Waits for room in the shard's kitchen on the calling thread, so a full kitchen holds back
+  // the clients completing orders there but never the shard's writer.
+  public UUID completeOrder(UUID orderId) throws OrderUpdateException {
+    Shard shard = shardOf(orderId);
+    Order.Status status = shard.service.findOrderStatus(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
+    if (status != Order.Status.Pending) {
+      throw new IncorrectOrderStatusException(orderId, Order.Status.Pending, status);
+    }
+    try {
+      shard.kitchen.reserve();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OrderUpdateException("Interrupted while waiting to queue order " + orderId + " for the kitchen");
+    }
+    Future<Result<UUID>> completed;
+    try {
+      completed = shard.submit(() -> shard.service.tryCompleteReservedOrder(orderId));
+    } catch (RuntimeException e) {
+      shard.kitchen.cancelReservation();
+      throw e;
+    }
+    return await(completed).orElseThrow();
+  }
+
+  public UUID prepareOrder(UUID orderId) throws OrderUpdateException {
+    Shard shard = shardOf(orderId);
+    return shard.call(() -> shard.service.prepareOrder(orderId));
+  }
+
+  public Delivery deliverOrder(UUID orderId) throws OrderUpdateException {
+    Shard shard = shardOf(orderId);
+    return shard.call(() -> shard.service.deliverOrder(orderId));
+  }
+
+  // Each shard delivers its part of the trip on its own writer; the parts are then merged back
+  // into one manifest ordered by building and room.
+  public DeliveryManifest deliverOrders(Collection<UUID> orderIds) throws OrderUpdateException {
+    List<List<UUID>> parts = new ArrayList<>(shards.length);
+    for (int i = 0; i < shards.length; i++) {
+      parts.add(new ArrayList<>());
+    }
+    orderIds.forEach(orderId -> parts.get(ShardTaggingIdGenerator.shardOf(orderId, shards.length)).add(orderId));
+
+    List<Future<DeliveryManifest>> pending = new ArrayList<>(shards.length);
+    for (int i = 0; i < shards.length; i++) {
+      if (!parts.get(i).isEmpty()) {
+        Shard shard = shards[i];
+        List<UUID> part = parts.get(i);
+        pending.add(shard.submit(() -> shard.service.deliverOrders(part)));
+      }
+    }
+    List<Delivery> deliveries = new ArrayList<>(orderIds.size());
+    List<UUID> skipped = new ArrayList<>();
+    for (Future<DeliveryManifest> part : pending) {
+      DeliveryManifest manifest = await(part);
+      deliveries.addAll(manifest.getDeliveries());
+      skipped.addAll(manifest.getSkippedOrders());
+    }
+    deliveries.sort(BY_STOP);
+    return new DeliveryManifest(deliveries, skipped);
+  }
+
+  public List<UUID> listCompletedOrders() {
+    List<UUID> completed = new ArrayList<>();
+    for (Shard shard : shards) {
+      completed.addAll(shard.service.listCompletedOrders());
+    }
+    return completed;
+  }
+
+  public List<UUID> listPreparedOrders() {
+    List<UUID> prepared = new ArrayList<>();
+    for (Shard shard : shards) {
+      prepared.addAll(shard.service.listPreparedOrders());
+    }
+    return prepared;
+  }
+
+  // Work already in the mailboxes is finished before the shard services and their logs are closed.
+  @Override
+  public void close() {
+    for (Shard shard : shards) {
+      shard.writer.shutdown();
+    }
+    for (Shard shard : shards) {
+      try {
+        shard.writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      shard.service.close();
+    }
+  }
+
+  private Shard shardOf(UUID id) {
+    return shards[ShardTaggingIdGenerator.shardOf(id, shards.length)];
+  }
+
+  private static <T> T await(Future<T> result) throws OrderUpdateException {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OrderUpdateException("Interrupted while waiting for a shard to apply the update");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof OrderUpdateException orderUpdateException) {
+        throw orderUpdateException;
+      }
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  private static final class Shard {
+    private final PancakeService service;
+    private final PreparationQueue kitchen;
+    private final ExecutorService writer;
+
+    // No locks: only the writer thread ever updates the shard.
+    private Shard(int index, OrderLog orderLog, PancakeValidator pancakeValidator, int kitchenCapacity) {
+      this.kitchen = new PreparationQueue(kitchenCapacity);
+      this.service = new PancakeService(
+          new AddressValidator(),
+          pancakeValidator,
+          new OrderRepository(),
+          new PancakeRepository(),
+          orderLog,
+          EntityLockManager.unlocked(),
+          EntityLockManager.unlocked(),
+          new ShardTaggingIdGenerator(new TimeOrderedIdGenerator(), index),
+          kitchen,
+          ServiceMetrics.disabled());
+      this.writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "pancake-shard-" + index);
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+
+    private <T> Future<T> submit(Callable<T> mutation) {
+      return writer.submit(mutation);
+    }
+
+    private <T> T call(Callable<T> mutation) throws OrderUpdateException {
+      return await(submit(mutation));
+    }
+  }
+}
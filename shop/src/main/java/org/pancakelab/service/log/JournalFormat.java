@@ -0,0 +1,143 @@
+package org.pancakelab.service.log;
+
+import org.pancakelab.model.PackedIngredients;
+import org.pancakelab.model.Pancake;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Fixed 64-byte little-endian record:
+//   0 operation ordinal + 1 (0 marks the end of written data)   1 ingredient ordinal + 1 (0 = none)
+//   4 pancake count   8 building   12 room   16 order UUID   32 pancake UUID   48 timestamp millis
+//   56 quantity (pancakes added by a batch)
+// An AddPancakes record is followed by one 32-byte entry per pancake of the batch, padded to whole
+// records: 0 pancake UUID   16 recipe as PackedIngredients.
+final class JournalFormat {
+  static final int RECORD_SIZE = 64;
+  static final String SEGMENT_PREFIX = "journal-";
+  static final String SEGMENT_SUFFIX = ".seg";
+
+  private static final int PANCAKE_ENTRY_SIZE = 32;
+  private static final OrderEvent.Operation[] OPERATIONS = OrderEvent.Operation.values();
+  private static final Pancake.Ingredient[] INGREDIENTS = Pancake.Ingredient.values();
+  private static final byte ADD_PANCAKES = (byte) (OrderEvent.Operation.AddPancakes.ordinal() + 1);
+
+  private JournalFormat() {
+  }
+
+  static int size(int pancakes) {
+    return RECORD_SIZE + (pancakes * PANCAKE_ENTRY_SIZE + RECORD_SIZE - 1) / RECORD_SIZE * RECORD_SIZE;
+  }
+
+  static int pancakesFitting(int bytes) {
+    return Math.max(0, (bytes - RECORD_SIZE) / PANCAKE_ENTRY_SIZE);
+  }
+
+  static void write(ByteBuffer buffer, int position, OrderEvent event) {
+    writeHeader(buffer, position, event, event.getQuantity(), event.getPancakeCount());
+  }
+
+  // Writes pancakes [from, from + count) of an AddPancakes event as a batch record of its own.
+  static void writePancakes(ByteBuffer buffer, int position, OrderEvent event, int from, int count) {
+    for (int i = 0; i < count; i++) {
+      int entry = position + RECORD_SIZE + i * PANCAKE_ENTRY_SIZE;
+      putUuid(buffer, entry, event.getPancakeId(from + i));
+      buffer.putLong(entry + 16, event.getRecipe(from + i));
+    }
+    writeHeader(buffer, position, event, count, event.getPancakeCount() + from);
+  }
+
+  private static void writeHeader(ByteBuffer buffer, int position, OrderEvent event, int quantity, int pancakeCount) {
+    buffer.put(position + 1, event.getIngredient() == null ? 0 : (byte) (event.getIngredient().ordinal() + 1));
+    buffer.putInt(position + 4, pancakeCount);
+    buffer.putInt(position + 8, event.getBuildingNumber());
+    buffer.putInt(position + 12, event.getRoomNumber());
+    putUuid(buffer, position + 16, event.getOrderId());
+    putUuid(buffer, position + 32, event.getPancakeId());
+    buffer.putLong(position + 48, event.getTimestamp());
+    buffer.putInt(position + 56, quantity);
+    // the operation byte goes last so a torn record still reads as end of data
+    buffer.put(position, (byte) (event.getOperation().ordinal() + 1));
+  }
+
+  static boolean hasRecord(ByteBuffer buffer, int position) {
+    return position + RECORD_SIZE <= buffer.limit() && buffer.get(position) != 0
+        && position + recordSize(buffer, position) <= buffer.limit();
+  }
+
+  static int recordSize(ByteBuffer buffer, int position) {
+    return buffer.get(position) == ADD_PANCAKES ? size(buffer.getInt(position + 56)) : RECORD_SIZE;
+  }
+
+  // A batch record comes back as the AddPancake and AddIngredient records of adding its pancakes
+  // one by one. Returns the number of records handed to the consumer.
+  static int read(ByteBuffer buffer, int position, Consumer<JournalRecord> consumer) {
+    OrderEvent.Operation operation = OPERATIONS[buffer.get(position) - 1];
+    UUID orderId = getUuid(buffer, position + 16);
+    int quantity = buffer.getInt(position + 56);
+    int pancakeCount = buffer.getInt(position + 4);
+    int buildingNumber = buffer.getInt(position + 8);
+    int roomNumber = buffer.getInt(position + 12);
+    long timestamp = buffer.getLong(position + 48);
+    if (operation != OrderEvent.Operation.AddPancakes) {
+      int ingredient = buffer.get(position + 1);
+      consumer.accept(new JournalRecord(operation, orderId, getUuid(buffer, position + 32),
+          ingredient == 0 ? null : INGREDIENTS[ingredient - 1],
+          quantity, pancakeCount, buildingNumber, roomNumber, timestamp));
+      return 1;
+    }
+    int records = 0;
+    for (int i = 0; i < quantity; i++) {
+      int entry = position + RECORD_SIZE + i * PANCAKE_ENTRY_SIZE;
+      UUID pancakeId = getUuid(buffer, entry);
+      long recipe = buffer.getLong(entry + 16);
+      consumer.accept(new JournalRecord(OrderEvent.Operation.AddPancake, orderId, pancakeId, null,
+          1, pancakeCount + i, buildingNumber, roomNumber, timestamp));
+      for (int j = 0; j < PackedIngredients.count(recipe); j++) {
+        consumer.accept(new JournalRecord(OrderEvent.Operation.AddIngredient, orderId, pancakeId,
+            PackedIngredients.get(recipe, j), 1, 0, 0, 0, timestamp));
+      }
+      records += 1 + PackedIngredients.count(recipe);
+    }
+    return records;
+  }
+
+  static Path segmentPath(Path directory, long segment) {
+    return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+  }
+
+  static List<Path> segments(Path directory) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+          .filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+          .sorted()
+          .toList();
+    }
+  }
+
+  static long segmentNumber(Path segment) {
+    String name = segment.getFileName().toString();
+    return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  private static void putUuid(ByteBuffer buffer, int position, UUID uuid) {
+    buffer.putLong(position, uuid == null ? 0 : uuid.getMostSignificantBits());
+    buffer.putLong(position + 8, uuid == null ? 0 : uuid.getLeastSignificantBits());
+  }
+
+  private static UUID getUuid(ByteBuffer buffer, int position) {
+    long most = buffer.getLong(position);
+    long least = buffer.getLong(position + 8);
+    return most == 0 && least == 0 ? null : new UUID(most, least);
+  }
+}
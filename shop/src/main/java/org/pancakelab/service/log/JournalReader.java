@@ -0,0 +1,37 @@
+package org.pancakelab.service.log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+public class JournalReader {
+  private final Path directory;
+
+  public JournalReader(Path directory) {
+    this.directory = directory;
+  }
+
+  public long replay(Consumer<JournalRecord> consumer) {
+    long replayed = 0;
+    try {
+      for (Path segment : JournalFormat.segments(directory)) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+          MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+          buffer.order(ByteOrder.LITTLE_ENDIAN);
+          for (int position = 0; JournalFormat.hasRecord(buffer, position);
+               position += JournalFormat.recordSize(buffer, position)) {
+            replayed += JournalFormat.read(buffer, position, consumer);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return replayed;
+  }
+}
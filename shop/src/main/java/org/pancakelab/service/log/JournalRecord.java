@@ -0,0 +1,16 @@
+package org.pancakelab.service.log;
+
+import org.pancakelab.model.Pancake;
+
+import java.util.UUID;
+
+public record JournalRecord(OrderEvent.Operation operation,
+                            UUID orderId,
+                            UUID pancakeId,
+                            Pancake.Ingredient ingredient,
+                            int quantity,
+                            int pancakeCount,
+                            int buildingNumber,
+                            int roomNumber,
+                            long timestamp) {
+}
@@ -0,0 +1,119 @@
+package org.pancakelab.service.log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+// Binary audit trail: events go into preallocated, memory-mapped segment files and are forced to
+// disk once enough records or enough time has accumulated. Runs on the OrderLog writer thread only.
+public class JournalSink implements OrderEventSink {
+  private static final int DEFAULT_RECORDS_PER_SEGMENT = 64 * 1024;
+  private static final int DEFAULT_SYNC_EVERY_RECORDS = 1024;
+  private static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofMillis(100);
+
+  private final Path directory;
+  private final int segmentSize;
+  private final int syncEveryRecords;
+  private final long syncIntervalNanos;
+
+  private long segment;
+  private MappedByteBuffer buffer;
+  private int position;
+  private int unsyncedRecords;
+  private long lastSync = System.nanoTime();
+
+  public JournalSink(Path directory) {
+    this(directory, DEFAULT_RECORDS_PER_SEGMENT, DEFAULT_SYNC_EVERY_RECORDS, DEFAULT_SYNC_INTERVAL);
+  }
+
+  public JournalSink(Path directory, int recordsPerSegment, int syncEveryRecords, Duration syncInterval) {
+    if (recordsPerSegment < 2) {
+      throw new IllegalArgumentException("A segment must hold at least two records, got " + recordsPerSegment);
+    }
+    this.directory = directory;
+    this.segmentSize = recordsPerSegment * JournalFormat.RECORD_SIZE;
+    this.syncEveryRecords = syncEveryRecords;
+    this.syncIntervalNanos = syncInterval.toNanos();
+    try {
+      Files.createDirectories(directory);
+      List<Path> segments = JournalFormat.segments(directory);
+      if (segments.isEmpty()) {
+        open(0);
+      } else {
+        open(JournalFormat.segmentNumber(segments.get(segments.size() - 1)));
+        while (JournalFormat.hasRecord(buffer, position)) {
+          position += JournalFormat.recordSize(buffer, position);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void write(OrderEvent event) {
+    if (event.getOperation() != OrderEvent.Operation.AddPancakes) {
+      makeRoom(JournalFormat.RECORD_SIZE);
+      JournalFormat.write(buffer, position, event);
+      position += JournalFormat.RECORD_SIZE;
+      unsyncedRecords++;
+      return;
+    }
+    // records never span segments, so a batch that doesn't fit what is left of one is split into
+    // several batch records
+    for (int from = 0; from < event.getQuantity(); ) {
+      makeRoom(JournalFormat.size(1));
+      int count = Math.min(event.getQuantity() - from, JournalFormat.pancakesFitting(buffer.capacity() - position));
+      JournalFormat.writePancakes(buffer, position, event, from, count);
+      position += JournalFormat.size(count);
+      from += count;
+      unsyncedRecords++;
+    }
+  }
+
+  private void makeRoom(int bytes) {
+    if (position + bytes > buffer.capacity()) {
+      buffer.force();
+      open(segment + 1);
+    }
+  }
+
+  @Override
+  public void flush() {
+    if (unsyncedRecords >= syncEveryRecords || System.nanoTime() - lastSync >= syncIntervalNanos) {
+      sync();
+    }
+  }
+
+  @Override
+  public void close() {
+    sync();
+  }
+
+  private void sync() {
+    if (unsyncedRecords > 0) {
+      buffer.force();
+      unsyncedRecords = 0;
+    }
+    lastSync = System.nanoTime();
+  }
+
+  private void open(long number) {
+    try (FileChannel channel = FileChannel.open(JournalFormat.segmentPath(directory, number),
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      segment = number;
+      position = 0;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package org.pancakelab.service.log;
+
+import org.pancakelab.model.Pancake;
+
+import java.util.UUID;
+
+// Slots of the ring buffer are preallocated and reused: sinks must copy whatever they keep
+// before returning from write.
+public class OrderEvent {
+  private Operation operation;
+  private UUID orderId;
+  private UUID pancakeId;
+  private Pancake.Ingredient ingredient;
+  private String description;
+  private int quantity;
+  private int pancakeCount;
+  private int buildingNumber;
+  private int roomNumber;
+  private long timestamp;
+  private UUID[] pancakeIds;
+  private long[] recipes;
+
+  void set(Operation operation, UUID orderId, UUID pancakeId, Pancake.Ingredient ingredient, String description,
+           int quantity, int pancakeCount, int buildingNumber, int roomNumber, long timestamp) {
+    this.operation = operation;
+    this.orderId = orderId;
+    this.pancakeId = pancakeId;
+    this.ingredient = ingredient;
+    this.description = description;
+    this.quantity = quantity;
+    this.pancakeCount = pancakeCount;
+    this.buildingNumber = buildingNumber;
+    this.roomNumber = roomNumber;
+    this.timestamp = timestamp;
+    this.pancakeIds = null;
+    this.recipes = null;
+  }
+
+  // AddPancakes carries every pancake of the batch; quantity is the number of them.
+  void setPancakes(UUID[] pancakeIds, long[] recipes) {
+    this.pancakeIds = pancakeIds;
+    this.recipes = recipes;
+  }
+
+  void clear() {
+    orderId = null;
+    pancakeId = null;
+    ingredient = null;
+    description = null;
+    pancakeIds = null;
+    recipes = null;
+  }
+
+  public Operation getOperation() {
+    return operation;
+  }
+
+  public UUID getOrderId() {
+    return orderId;
+  }
+
+  public UUID getPancakeId() {
+    return pancakeId;
+  }
+
+  public Pancake.Ingredient getIngredient() {
+    return ingredient;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  public int getPancakeCount() {
+    return pancakeCount;
+  }
+
+  public int getBuildingNumber() {
+    return buildingNumber;
+  }
+
+  public int getRoomNumber() {
+    return roomNumber;
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public UUID getPancakeId(int index) {
+    return pancakeIds[index];
+  }
+
+  public long getRecipe(int index) {
+    return recipes[index];
+  }
+
+  public enum Operation {
+    AddPancake, RemovePancake, AddIngredient, CancelOrder, DeliverOrder, AddPancakes, ExpireOrder
+  }
+}
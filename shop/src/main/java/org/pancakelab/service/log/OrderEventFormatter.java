@@ -0,0 +1,35 @@
+package org.pancakelab.service.log;
+
+public final class OrderEventFormatter {
+
+  private OrderEventFormatter() {
+  }
+
+  public static StringBuilder format(OrderEvent event, StringBuilder out) {
+    switch (event.getOperation()) {
+      case AddPancake -> out.append("Added pancake with description '").append(event.getDescription())
+          .append("' to order ").append(event.getOrderId())
+          .append(" containing ").append(event.getPancakeCount()).append(" pancakes, ");
+      case RemovePancake -> out.append("Removed pancake with description '").append(event.getDescription())
+          .append("' from order ").append(event.getOrderId())
+          .append(" now containing ").append(event.getPancakeCount()).append(" pancakes, ");
+      case AddPancakes -> out.append("Added ").append(event.getQuantity())
+          .append(" pancakes to order ").append(event.getOrderId())
+          .append(" containing ").append(event.getPancakeCount()).append(" pancakes, ");
+      case AddIngredient -> {
+        return out.append("Added ").append(event.getIngredient().getDescription())
+            .append(" to pancake ").append(event.getPancakeId())
+            .append(" in order ").append(event.getOrderId()).append('.');
+      }
+      case CancelOrder -> out.append("Cancelled order ").append(event.getOrderId())
+          .append(" with ").append(event.getPancakeCount()).append(" pancakes ");
+      case ExpireOrder -> out.append("Expired abandoned order ").append(event.getOrderId())
+          .append(" with ").append(event.getPancakeCount()).append(" pancakes ");
+      case DeliverOrder -> out.append("Order ").append(event.getOrderId())
+          .append(" with ").append(event.getPancakeCount()).append(" pancakes ");
+    }
+    out.append("for building ").append(event.getBuildingNumber())
+       .append(", room ").append(event.getRoomNumber());
+    return out.append(event.getOperation() == OrderEvent.Operation.DeliverOrder ? " out for delivery." : ".");
+  }
+}
@@ -0,0 +1,79 @@
+package org.pancakelab.service.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+// Multi-producer, single-consumer ring of preallocated events. Producers claim a sequence with a
+// CAS, fill the slot and publish it; the consumer only reads slots whose published sequence matches.
+class OrderEventRingBuffer {
+  private final OrderEvent[] slots;
+  private final AtomicLongArray published;
+  private final int mask;
+  private final AtomicLong claimed = new AtomicLong();
+  private final AtomicLong consumed = new AtomicLong();
+
+  OrderEventRingBuffer(int capacity) {
+    if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two, was " + capacity);
+    }
+    slots = new OrderEvent[capacity];
+    published = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      slots[i] = new OrderEvent();
+      published.set(i, -1);
+    }
+    mask = capacity - 1;
+  }
+
+  long tryClaim() {
+    while (true) {
+      long sequence = claimed.get();
+      if (sequence - consumed.get() >= slots.length) {
+        return -1;
+      }
+      if (claimed.compareAndSet(sequence, sequence + 1)) {
+        return sequence;
+      }
+    }
+  }
+
+  OrderEvent slot(long sequence) {
+    return slots[(int) sequence & mask];
+  }
+
+  // A full volatile write, not lazySet: a producer checks whether the consumer is parked right
+  // after publishing, and that read must not be reordered ahead of this write.
+  void publish(long sequence) {
+    published.set((int) sequence & mask, sequence);
+  }
+
+  boolean hasPublished() {
+    long next = consumed.get();
+    return published.get((int) next & mask) == next;
+  }
+
+  int drain(Consumer<OrderEvent> handler, int maxBatch) {
+    long next = consumed.get();
+    int drained = 0;
+    while (drained < maxBatch && published.get((int) next & mask) == next) {
+      OrderEvent event = slots[(int) next & mask];
+      handler.accept(event);
+      event.clear();
+      next++;
+      drained++;
+    }
+    if (drained > 0) {
+      consumed.set(next);
+    }
+    return drained;
+  }
+
+  int size() {
+    return (int) (claimed.get() - consumed.get());
+  }
+
+  int capacity() {
+    return slots.length;
+  }
+}
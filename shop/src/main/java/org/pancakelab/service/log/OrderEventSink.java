@@ -0,0 +1,12 @@
+package org.pancakelab.service.log;
+
+public interface OrderEventSink extends AutoCloseable {
+  void write(OrderEvent event);
+
+  default void flush() {
+  }
+
+  @Override
+  default void close() {
+  }
+}
@@ -0,0 +1,163 @@
+package org.pancakelab.service.log;
+
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Pancake;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Hot path: claim a slot, copy a handful of fields into it, publish. Formatting and I/O happen on
+// the writer thread, which drains the ring in batches and flushes the sink once per batch. An idle
+// writer parks until a producer publishes into the empty ring and wakes it.
+public class OrderEventWriter implements AutoCloseable {
+  public static final int SAMPLE_RATE = 16;
+  private static final int MAX_BATCH = 256;
+
+  private final OrderEventRingBuffer ringBuffer;
+  private final OrderEventSink sink;
+  private final OverflowPolicy overflowPolicy;
+  private final Thread consumer;
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong sampled = new AtomicLong();
+  private final AtomicLong failedWrites = new AtomicLong();
+  private final AtomicBoolean closed = new AtomicBoolean();
+  private volatile boolean running = true;
+  private volatile boolean idle;
+
+  public OrderEventWriter(OrderEventSink sink, int capacity, OverflowPolicy overflowPolicy) {
+    this.ringBuffer = new OrderEventRingBuffer(capacity);
+    this.sink = sink;
+    this.overflowPolicy = overflowPolicy;
+    this.consumer = new Thread(this::run, "order-log-writer");
+    this.consumer.setDaemon(true);
+    this.consumer.start();
+  }
+
+  public void append(OrderEvent.Operation operation, UUID orderId, UUID pancakeId, Pancake.Ingredient ingredient,
+                     String description, int quantity, int pancakeCount, Address address) {
+    long sequence = claim();
+    if (sequence < 0) {
+      dropped.incrementAndGet();
+      return;
+    }
+    set(ringBuffer.slot(sequence), operation, orderId, pancakeId, ingredient, description, quantity, pancakeCount,
+        address);
+    publish(sequence);
+  }
+
+  // The arrays are handed over to the writer thread, so callers pass copies they won't touch again.
+  public void appendPancakes(UUID orderId, UUID[] pancakeIds, long[] recipes, int pancakeCount, Address address) {
+    long sequence = claim();
+    if (sequence < 0) {
+      dropped.incrementAndGet();
+      return;
+    }
+    OrderEvent slot = ringBuffer.slot(sequence);
+    set(slot, OrderEvent.Operation.AddPancakes, orderId, null, null, null, pancakeIds.length, pancakeCount, address);
+    slot.setPancakes(pancakeIds, recipes);
+    publish(sequence);
+  }
+
+  private static void set(OrderEvent slot, OrderEvent.Operation operation, UUID orderId, UUID pancakeId,
+                          Pancake.Ingredient ingredient, String description, int quantity, int pancakeCount,
+                          Address address) {
+    int buildingNumber = address == null ? 0 : address.buildingNumber();
+    int roomNumber = address == null ? 0 : address.roomNumber();
+    slot.set(operation, orderId, pancakeId, ingredient, description, quantity, pancakeCount,
+        buildingNumber, roomNumber, System.currentTimeMillis());
+  }
+
+  private void publish(long sequence) {
+    ringBuffer.publish(sequence);
+    if (idle) {
+      LockSupport.unpark(consumer);
+    }
+  }
+
+  private long claim() {
+    switch (overflowPolicy) {
+      case Drop:
+        return ringBuffer.tryClaim();
+      case Sample:
+        if (ringBuffer.size() >= ringBuffer.capacity() / 2 && sampled.getAndIncrement() % SAMPLE_RATE != 0) {
+          return -1;
+        }
+        return ringBuffer.tryClaim();
+      default:
+        long sequence;
+        while ((sequence = ringBuffer.tryClaim()) < 0) {
+          if (!running) {
+            return -1;
+          }
+          LockSupport.parkNanos(1_000);
+        }
+        return sequence;
+    }
+  }
+
+  public long droppedEvents() {
+    return dropped.get();
+  }
+
+  public long failedWrites() {
+    return failedWrites.get();
+  }
+
+  public int pendingEvents() {
+    return ringBuffer.size();
+  }
+
+  // The writer announces that it is idle before looking at the ring one last time, and producers
+  // publish before looking at the flag, so one of the two always sees the other.
+  private void run() {
+    while (running) {
+      if (drainBatch() == 0) {
+        idle = true;
+        if (running && !ringBuffer.hasPublished()) {
+          LockSupport.park(this);
+        }
+        idle = false;
+      }
+    }
+    while (drainBatch() > 0) {
+      // flush whatever was published before close
+    }
+  }
+
+  private int drainBatch() {
+    int drained = ringBuffer.drain(this::write, MAX_BATCH);
+    if (drained > 0) {
+      try {
+        sink.flush();
+      } catch (RuntimeException e) {
+        failedWrites.incrementAndGet();
+      }
+    }
+    return drained;
+  }
+
+  private void write(OrderEvent event) {
+    try {
+      sink.write(event);
+    } catch (RuntimeException e) {
+      failedWrites.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(consumer);
+    try {
+      consumer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    sink.close();
+  }
+}
@@ -0,0 +1,10 @@
+package org.pancakelab.service.log;
+
+public enum OverflowPolicy {
+  // wait for the writer to free a slot
+  Block,
+  // discard the event when the buffer is full
+  Drop,
+  // once the buffer is half full keep only one event in OrderEventWriter.SAMPLE_RATE, drop the rest
+  Sample
+}
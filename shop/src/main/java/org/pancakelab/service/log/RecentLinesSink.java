@@ -0,0 +1,34 @@
+package org.pancakelab.service.log;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+// Keeps the last few formatted lines in memory, replacing the old unbounded StringBuilder.
+public class RecentLinesSink implements OrderEventSink {
+  private final int capacity;
+  private final ArrayDeque<String> lines;
+  private final StringBuilder line = new StringBuilder(256);
+
+  public RecentLinesSink(int capacity) {
+    this.capacity = capacity;
+    this.lines = new ArrayDeque<>(capacity);
+  }
+
+  @Override
+  public void write(OrderEvent event) {
+    line.setLength(0);
+    String formatted = OrderEventFormatter.format(event, line).toString();
+    synchronized (lines) {
+      if (lines.size() == capacity) {
+        lines.removeFirst();
+      }
+      lines.addLast(formatted);
+    }
+  }
+
+  public List<String> lines() {
+    synchronized (lines) {
+      return List.copyOf(lines);
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package org.pancakelab.service.log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+public class WriterSink implements OrderEventSink {
+  private final Writer writer;
+  private final StringBuilder line = new StringBuilder(256);
+
+  public WriterSink(Writer writer) {
+    this.writer = writer;
+  }
+
+  @Override
+  public void write(OrderEvent event) {
+    line.setLength(0);
+    OrderEventFormatter.format(event, line).append(System.lineSeparator());
+    try {
+      writer.append(line);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void flush() {
+    try {
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      writer.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
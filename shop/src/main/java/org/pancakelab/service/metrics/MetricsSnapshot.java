@@ -0,0 +1,11 @@
+package org.pancakelab.service.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+
+public record MetricsSnapshot(boolean enabled, Duration elapsed, Map<ServiceOperation, OperationStats> operations) {
+
+  public OperationStats get(ServiceOperation operation) {
+    return operations.get(operation);
+  }
+}
@@ -0,0 +1,21 @@
+package org.pancakelab.service.metrics;
+
+import java.util.Map;
+
+public record OperationStats(ServiceOperation operation,
+                             Map<Outcome, Long> outcomes,
+                             LatencyHistogram.Snapshot latency,
+                             double callsPerSecond) {
+
+  public long calls() {
+    return latency.count();
+  }
+
+  public long successes() {
+    return outcomes.getOrDefault(Outcome.Success, 0L);
+  }
+
+  public long failures() {
+    return calls() - successes();
+  }
+}
@@ -0,0 +1,30 @@
+package org.pancakelab.service.metrics;
+
+import org.pancakelab.exception.IncorrectOrderStatusException;
+import org.pancakelab.exception.LockTimeoutException;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.exception.PancakeNotFoundException;
+
+public enum Outcome {
+  Success, OrderNotFound, PancakeNotFound, IncorrectOrderStatus, LockTimeout, InvalidInput, Interrupted, OtherFailure;
+
+  static Outcome of(Throwable failure) {
+    if (failure instanceof OrderNotFoundException) {
+      return OrderNotFound;
+    }
+    if (failure instanceof PancakeNotFoundException) {
+      return PancakeNotFound;
+    }
+    if (failure instanceof IncorrectOrderStatusException) {
+      return IncorrectOrderStatus;
+    }
+    if (failure instanceof LockTimeoutException) {
+      return LockTimeout;
+    }
+    // what the validators throw for bad addresses and overloaded pancakes
+    if (failure instanceof IllegalArgumentException || failure instanceof IllegalStateException) {
+      return InvalidInput;
+    }
+    return OtherFailure;
+  }
+}
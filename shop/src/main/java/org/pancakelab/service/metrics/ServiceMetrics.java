@@ -0,0 +1,97 @@
+package org.pancakelab.service.metrics;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Per-operation latency and outcome counters for PancakeService. Everything is preallocated, so
+// recording a call never allocates. A disabled instance skips even the clock reads, leaving a
+// field load and a branch per call.
+public class ServiceMetrics {
+  private static final ServiceOperation[] OPERATIONS = ServiceOperation.values();
+  private static final Outcome[] OUTCOMES = Outcome.values();
+
+  private final boolean enabled;
+  private final long createdNanos = System.nanoTime();
+  private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+  private final AtomicLongArray outcomes;
+
+  private ServiceMetrics(boolean enabled) {
+    this.enabled = enabled;
+    this.outcomes = new AtomicLongArray(enabled ? OPERATIONS.length * OUTCOMES.length : 0);
+    if (enabled) {
+      for (int i = 0; i < latencies.length; i++) {
+        latencies[i] = new LatencyHistogram();
+      }
+    }
+  }
+
+  public static ServiceMetrics enabled() {
+    return new ServiceMetrics(true);
+  }
+
+  public static ServiceMetrics disabled() {
+    return new ServiceMetrics(false);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public long start() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  // Returns the result unchanged so a call site can wrap its return expression.
+  public <T> T succeeded(ServiceOperation operation, long start, T result) {
+    if (enabled) {
+      record(operation, start, Outcome.Success);
+    }
+    return result;
+  }
+
+  public void failed(ServiceOperation operation, long start, Throwable failure) {
+    if (enabled) {
+      record(operation, start, Outcome.of(failure));
+    }
+  }
+
+  // For calls that report a miss as a result instead of throwing it.
+  public void rejected(ServiceOperation operation, long start, Outcome outcome) {
+    if (enabled) {
+      record(operation, start, outcome);
+    }
+  }
+
+  public MetricsSnapshot snapshot() {
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - createdNanos);
+    Map<ServiceOperation, OperationStats> operations = new EnumMap<>(ServiceOperation.class);
+    if (enabled) {
+      double seconds = Math.max(elapsed.toNanos(), 1) / 1e9;
+      for (ServiceOperation operation : OPERATIONS) {
+        Map<Outcome, Long> counts = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : OUTCOMES) {
+          long count = outcomes.get(slot(operation, outcome));
+          if (count > 0) {
+            counts.put(outcome, count);
+          }
+        }
+        LatencyHistogram.Snapshot latency = latencies[operation.ordinal()].snapshot();
+        operations.put(operation, new OperationStats(operation, Collections.unmodifiableMap(counts), latency,
+            latency.count() / seconds));
+      }
+    }
+    return new MetricsSnapshot(enabled, elapsed, operations);
+  }
+
+  private void record(ServiceOperation operation, long start, Outcome outcome) {
+    latencies[operation.ordinal()].record(System.nanoTime() - start);
+    outcomes.incrementAndGet(slot(operation, outcome));
+  }
+
+  private static int slot(ServiceOperation operation, Outcome outcome) {
+    return operation.ordinal() * OUTCOMES.length + outcome.ordinal();
+  }
+}
@@ -0,0 +1,6 @@
+package org.pancakelab.service.metrics;
+
+public enum ServiceOperation {
+  StartOrder, AddPancake, AddPancakes, RemovePancake, AddIngredient, ViewOrder,
+  CancelOrder, ExpireOrder, CompleteOrder, PrepareOrder, DeliverOrder, DeliverOrders
+}
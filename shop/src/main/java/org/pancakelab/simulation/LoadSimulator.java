@@ -0,0 +1,222 @@
+package org.pancakelab.simulation;
+
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Delivery;
+import org.pancakelab.model.DeliveryManifest;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.OrderLog;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.PreparationQueue;
+import org.pancakelab.service.log.OverflowPolicy;
+import org.pancakelab.service.log.RecentLinesSink;
+import org.pancakelab.service.metrics.LatencyHistogram;
+import org.pancakelab.service.metrics.ServiceMetrics;
+import org.pancakelab.util.EntityLockManager;
+import org.pancakelab.util.TimeOrderedIdGenerator;
+import org.pancakelab.util.VirtualThreads;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lunch rush in a box: disciples order until the time is up, chefs claim completed orders from
+// the kitchen queue and put them on the pickup shelf, couriers take what is on the shelf and
+// deliver it in batches. Once the last disciple has finished, chefs work off what is left in the
+// kitchen and couriers then clear the shelf, so every completed order is delivered.
+public class LoadSimulator {
+  private static final Pancake.Ingredient[] INGREDIENTS = Pancake.Ingredient.values();
+  private static final long POLL_MILLIS = 50;
+  private static final long SAMPLE_MILLIS = 10;
+
+  private final SimulationConfig config;
+  private final PreparationQueue kitchen;
+  private final PancakeService pancakeService;
+  private final LinkedBlockingQueue<UUID> pickupShelf = new LinkedBlockingQueue<>();
+  private final ConcurrentHashMap<UUID, Long> startedAt = new ConcurrentHashMap<>();
+  private final LatencyHistogram endToEnd = new LatencyHistogram();
+  private final LongAdder started = new LongAdder();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder cancelled = new LongAdder();
+  private final LongAdder prepared = new LongAdder();
+  private final LongAdder delivered = new LongAdder();
+  private final LongAdder trips = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final QueueDepth kitchenDepth = new QueueDepth();
+  private final QueueDepth shelfDepth = new QueueDepth();
+  private volatile boolean kitchenOpen = true;
+  private volatile boolean chefsGone;
+
+  public LoadSimulator(SimulationConfig config) {
+    this.config = config;
+    // the log drops rather than blocks, so it can't become the bottleneck being measured
+    OrderLog orderLog = new OrderLog(new RecentLinesSink(1024), 1 << 16, OverflowPolicy.Drop);
+    this.kitchen = new PreparationQueue(config.kitchenCapacity());
+    this.pancakeService = new PancakeService(
+        new AddressValidator(),
+        new PancakeValidator(),
+        new OrderRepository(),
+        new PancakeRepository(),
+        orderLog,
+        EntityLockManager.striped(1024),
+        EntityLockManager.striped(1024),
+        new TimeOrderedIdGenerator(),
+        kitchen,
+        ServiceMetrics.enabled());
+  }
+
+  public SimulationReport run() throws InterruptedException {
+    ExecutorService disciples = executor(config.disciples());
+    ExecutorService chefs = executor(config.chefs());
+    ExecutorService couriers = executor(config.couriers());
+    ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+    long begin = System.nanoTime();
+    long deadline = begin + config.duration().toNanos();
+
+    sampler.scheduleAtFixedRate(() -> {
+      kitchenDepth.sample(kitchen.size());
+      shelfDepth.sample(pickupShelf.size());
+    }, 0, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+    for (int i = 0; i < config.chefs(); i++) {
+      chefs.execute(this::cook);
+    }
+    for (int i = 0; i < config.couriers(); i++) {
+      couriers.execute(this::deliver);
+    }
+    for (int i = 0; i < config.disciples(); i++) {
+      disciples.execute(() -> order(deadline));
+    }
+
+    disciples.shutdown();
+    disciples.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    kitchenOpen = false;
+    chefs.shutdown();
+    chefs.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    chefsGone = true;
+    couriers.shutdown();
+    couriers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    long elapsed = System.nanoTime() - begin;
+    sampler.shutdown();
+    sampler.awaitTermination(1, TimeUnit.SECONDS);
+    pancakeService.close();
+
+    return new SimulationReport(config, elapsed,
+        started.sum(), completed.sum(), cancelled.sum(), prepared.sum(), delivered.sum(), trips.sum(),
+        failures.sum(), startedAt.size(), endToEnd.snapshot(),
+        kitchenDepth.stats(), shelfDepth.stats(), pancakeService.metrics());
+  }
+
+  private void order(long deadline) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    while (System.nanoTime() < deadline) {
+      try {
+        UUID orderId = pancakeService.startOrder(new Address(random.nextInt(1, 101), random.nextInt(1, 101)));
+        startedAt.put(orderId, System.nanoTime());
+        started.increment();
+        int pancakes = random.nextInt(1, config.maxPancakesPerOrder() + 1);
+        for (int p = 0; p < pancakes; p++) {
+          UUID pancakeId = pancakeService.addPancake(orderId);
+          int toppings = random.nextInt(0, 4);
+          for (int t = 0; t < toppings; t++) {
+            pancakeService.addIngredient(pancakeId, INGREDIENTS[random.nextInt(INGREDIENTS.length)]);
+          }
+        }
+        if (random.nextDouble() < config.cancelRate()) {
+          pancakeService.cancelOrder(orderId);
+          startedAt.remove(orderId);
+          cancelled.increment();
+        } else {
+          pancakeService.completeOrder(orderId);
+          completed.increment();
+        }
+      } catch (OrderUpdateException | RuntimeException e) {
+        failures.increment();
+      }
+    }
+  }
+
+  private void cook() {
+    try {
+      while (kitchenOpen || kitchen.size() > 0) {
+        Optional<UUID> orderId = pancakeService.takeNextOrderToPrepare(Duration.ofMillis(POLL_MILLIS));
+        if (orderId.isEmpty()) {
+          continue;
+        }
+        if (!config.preparationTime().isZero()) {
+          Thread.sleep(config.preparationTime().toMillis());
+        }
+        prepared.increment();
+        pickupShelf.add(orderId.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void deliver() {
+    List<UUID> batch = new ArrayList<>(config.courierBatchSize());
+    try {
+      while (!chefsGone || !pickupShelf.isEmpty()) {
+        UUID first = pickupShelf.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.clear();
+        batch.add(first);
+        pickupShelf.drainTo(batch, config.courierBatchSize() - 1);
+        try {
+          DeliveryManifest manifest = pancakeService.deliverOrders(batch);
+          long now = System.nanoTime();
+          for (Delivery delivery : manifest.getDeliveries()) {
+            Long orderedAt = startedAt.remove(delivery.getOrder().getId());
+            if (orderedAt != null) {
+              endToEnd.record(now - orderedAt);
+            }
+          }
+          delivered.add(manifest.getDeliveries().size());
+          failures.add(manifest.getSkippedOrders().size());
+          trips.increment();
+        } catch (OrderUpdateException | RuntimeException e) {
+          failures.increment();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static ExecutorService executor(int threads) {
+    return VirtualThreads.available() ? VirtualThreads.newThreadPerTaskExecutor() : Executors.newFixedThreadPool(threads);
+  }
+
+  // Written by the sampler thread only and read after it has terminated.
+  private static final class QueueDepth {
+    private int max;
+    private long total;
+    private long samples;
+
+    void sample(int depth) {
+      max = Math.max(max, depth);
+      total += depth;
+      samples++;
+    }
+
+    SimulationReport.QueueStats stats() {
+      return new SimulationReport.QueueStats(max, samples == 0 ? 0 : (double) total / samples);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package org.pancakelab.simulation;
+
+import java.time.Duration;
+
+public record SimulationConfig(int disciples,
+                               int chefs,
+                               int couriers,
+                               Duration duration,
+                               double cancelRate,
+                               int maxPancakesPerOrder,
+                               int courierBatchSize,
+                               int kitchenCapacity,
+                               Duration preparationTime) {
+
+  public static final SimulationConfig DEFAULT =
+      new SimulationConfig(64, 8, 4, Duration.ofSeconds(10), 0.1, 3, 8, 1024, Duration.ZERO);
+
+  public SimulationConfig {
+    if (disciples < 1 || chefs < 1 || couriers < 1) {
+      throw new IllegalArgumentException("Need at least one disciple, chef and courier");
+    }
+    if (cancelRate < 0 || cancelRate > 1) {
+      throw new IllegalArgumentException("Cancel rate must be between 0 and 1 but was " + cancelRate);
+    }
+    if (maxPancakesPerOrder < 1 || courierBatchSize < 1 || kitchenCapacity < 1) {
+      throw new IllegalArgumentException("Pancakes per order, courier batch size and kitchen capacity must be positive");
+    }
+  }
+
+  // Options look like --disciples=200 --duration=30s; anything not given keeps its default.
+  public static SimulationConfig fromArgs(String... args) {
+    int disciples = DEFAULT.disciples;
+    int chefs = DEFAULT.chefs;
+    int couriers = DEFAULT.couriers;
+    Duration duration = DEFAULT.duration;
+    double cancelRate = DEFAULT.cancelRate;
+    int maxPancakes = DEFAULT.maxPancakesPerOrder;
+    int batchSize = DEFAULT.courierBatchSize;
+    int capacity = DEFAULT.kitchenCapacity;
+    Duration preparationTime = DEFAULT.preparationTime;
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("Expected --option=value but got " + arg);
+      }
+      String value = arg.substring(separator + 1);
+      switch (arg.substring(2, separator)) {
+        case "disciples" -> disciples = Integer.parseInt(value);
+        case "chefs" -> chefs = Integer.parseInt(value);
+        case "couriers" -> couriers = Integer.parseInt(value);
+        case "duration" -> duration = parseDuration(value);
+        case "cancel-rate" -> cancelRate = Double.parseDouble(value);
+        case "max-pancakes" -> maxPancakes = Integer.parseInt(value);
+        case "courier-batch" -> batchSize = Integer.parseInt(value);
+        case "kitchen-capacity" -> capacity = Integer.parseInt(value);
+        case "preparation-time" -> preparationTime = parseDuration(value);
+        default -> throw new IllegalArgumentException("Unknown option " + arg);
+      }
+    }
+    return new SimulationConfig(disciples, chefs, couriers, duration, cancelRate, maxPancakes, batchSize, capacity,
+        preparationTime);
+  }
+
+  // 250ms, 30s, 2m
+  static Duration parseDuration(String value) {
+    if (value.endsWith("ms")) {
+      return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+    }
+    long amount = Long.parseLong(value.substring(0, value.length() - 1));
+    return switch (value.charAt(value.length() - 1)) {
+      case 's' -> Duration.ofSeconds(amount);
+      case 'm' -> Duration.ofMinutes(amount);
+      default -> throw new IllegalArgumentException("Expected a duration like 250ms, 30s or 2m but got " + value);
+    };
+  }
+}
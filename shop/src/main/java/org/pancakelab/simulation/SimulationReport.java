@@ -0,0 +1,70 @@
+package org.pancakelab.simulation;
+
+import org.pancakelab.service.metrics.LatencyHistogram;
+import org.pancakelab.service.metrics.MetricsSnapshot;
+import org.pancakelab.service.metrics.OperationStats;
+
+import java.util.Locale;
+
+public record SimulationReport(SimulationConfig config,
+                               long elapsedNanos,
+                               long started,
+                               long completed,
+                               long cancelled,
+                               long prepared,
+                               long delivered,
+                               long trips,
+                               long failures,
+                               long inFlight,
+                               LatencyHistogram.Snapshot endToEnd,
+                               QueueStats kitchenQueue,
+                               QueueStats pickupShelf,
+                               MetricsSnapshot serviceMetrics) {
+
+  public double perSecond(long count) {
+    return count / Math.max(elapsedNanos / 1e9, 1e-9);
+  }
+
+  public String format() {
+    StringBuilder out = new StringBuilder();
+    out.append(String.format(Locale.ROOT, "Simulated %.1f s with %d disciples, %d chefs, %d couriers%n",
+        elapsedNanos / 1e9, config.disciples(), config.chefs(), config.couriers()));
+    out.append(String.format(Locale.ROOT, "%n%-12s %12s %12s%n", "stage", "orders", "per second"));
+    stage(out, "started", started);
+    stage(out, "completed", completed);
+    stage(out, "cancelled", cancelled);
+    stage(out, "prepared", prepared);
+    stage(out, "delivered", delivered);
+    out.append(String.format(Locale.ROOT, "%-12s %12d%n", "in flight", inFlight));
+    out.append(String.format(Locale.ROOT, "%-12s %12d%n", "failures", failures));
+    out.append(String.format(Locale.ROOT, "courier trips %d, %.1f orders per trip%n",
+        trips, trips == 0 ? 0 : (double) delivered / trips));
+
+    out.append(String.format(Locale.ROOT, "%nend-to-end latency (ms): p50 %.2f  p99 %.2f  p999 %.2f  max %.2f%n",
+        endToEnd.p50Nanos() / 1e6, endToEnd.p99Nanos() / 1e6, endToEnd.p999Nanos() / 1e6, endToEnd.maxNanos() / 1e6));
+    out.append(String.format(Locale.ROOT, "kitchen queue: max %d, avg %.1f (capacity %d)%n",
+        kitchenQueue.max(), kitchenQueue.average(), config.kitchenCapacity()));
+    out.append(String.format(Locale.ROOT, "pickup shelf:  max %d, avg %.1f%n",
+        pickupShelf.max(), pickupShelf.average()));
+
+    out.append(String.format(Locale.ROOT, "%n%-14s %10s %10s %10s %10s %10s %9s%n",
+        "operation", "calls", "p50 us", "p99 us", "p999 us", "max us", "failures"));
+    for (OperationStats stats : serviceMetrics.operations().values()) {
+      if (stats.calls() == 0) {
+        continue;
+      }
+      LatencyHistogram.Snapshot latency = stats.latency();
+      out.append(String.format(Locale.ROOT, "%-14s %10d %10.1f %10.1f %10.1f %10.1f %9d%n",
+          stats.operation(), stats.calls(), latency.p50Nanos() / 1e3, latency.p99Nanos() / 1e3,
+          latency.p999Nanos() / 1e3, latency.maxNanos() / 1e3, stats.failures()));
+    }
+    return out.toString();
+  }
+
+  private void stage(StringBuilder out, String name, long count) {
+    out.append(String.format(Locale.ROOT, "%-12s %12d %12.1f%n", name, count, perSecond(count)));
+  }
+
+  public record QueueStats(int max, double average) {
+  }
+}
@@ -0,0 +1,195 @@
+package org.pancakelab.util;
+
+import org.pancakelab.exception.LockTimeoutException;
+import org.pancakelab.exception.OrderUpdateException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class EntityLockManager<K> {
+  private final LockTable<K> locks;
+
+  public EntityLockManager() {
+    this(new PerKeyLockTable<>());
+  }
+
+  private EntityLockManager(LockTable<K> locks) {
+    this.locks = locks;
+  }
+
+  // One lock per key, created on demand and dropped by removeLock.
+  public static <K> EntityLockManager<K> perKey() {
+    return new EntityLockManager<>(new PerKeyLockTable<>());
+  }
+
+  // A fixed table of locks shared by all keys: constant memory, no allocation per call and
+  // nothing to remove, at the price of unrelated keys occasionally sharing a stripe.
+  public static <K> EntityLockManager<K> striped(int stripes) {
+    return new EntityLockManager<>(new StripedLockTable<>(stripes));
+  }
+
+  // No locking at all, for a caller that already runs every update on one thread, such as a
+  // shard's writer.
+  public static <K> EntityLockManager<K> unlocked() {
+    return new EntityLockManager<>(new NoLockTable<>());
+  }
+
+  // Locks come from java.util.concurrent rather than synchronized, so virtual threads waiting
+  // here unmount instead of pinning their carrier.
+  public <T, E extends OrderUpdateException> T withLock(K key, ThrowingFunction<K, T, E> action) throws E {
+    ReentrantLock lock = locks.lockFor(key);
+    if (lock == null) {
+      return action.apply(key);
+    }
+    lock.lock();
+    try {
+      return action.apply(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public <T, E extends OrderUpdateException> T withLock(K key, Duration timeout, ThrowingFunction<K, T, E> action)
+      throws E, LockTimeoutException {
+    ReentrantLock lock = locks.lockFor(key);
+    if (lock == null) {
+      return action.apply(key);
+    }
+    try {
+      if (!lock.tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+        throw new LockTimeoutException(key, timeout);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LockTimeoutException(key, timeout);
+    }
+    try {
+      return action.apply(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public <T, E extends OrderUpdateException> T tryWithLock(K key, ThrowingFunction<K, T, E> action)
+      throws E, LockTimeoutException {
+    ReentrantLock lock = locks.lockFor(key);
+    if (lock == null) {
+      return action.apply(key);
+    }
+    if (!lock.tryLock()) {
+      throw new LockTimeoutException(key, Duration.ZERO);
+    }
+    try {
+      return action.apply(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void removeLock(K key) {
+    locks.remove(key);
+  }
+
+  public void removeLocks(Collection<K> keys) {
+    locks.removeAll(keys);
+  }
+
+  public int size() {
+    return locks.size();
+  }
+
+  private interface LockTable<K> {
+    // null when the table does no locking
+    ReentrantLock lockFor(K key);
+
+    void remove(K key);
+
+    void removeAll(Collection<K> keys);
+
+    int size();
+  }
+
+  private static class PerKeyLockTable<K> implements LockTable<K> {
+    private final ConcurrentHashMap<K, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    @Override
+    public ReentrantLock lockFor(K key) {
+      return locks.computeIfAbsent(key, k -> new ReentrantLock());
+    }
+
+    @Override
+    public void remove(K key) {
+      locks.remove(key);
+    }
+
+    @Override
+    public void removeAll(Collection<K> keys) {
+      keys.forEach(locks::remove);
+    }
+
+    @Override
+    public int size() {
+      return locks.size();
+    }
+  }
+
+  private static class StripedLockTable<K> implements LockTable<K> {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    private StripedLockTable(int stripes) {
+      if (stripes < 1) {
+        throw new IllegalArgumentException("Number of stripes must be positive, was " + stripes);
+      }
+      int size = Integer.highestOneBit(stripes - 1) << 1;
+      this.stripes = new ReentrantLock[Math.max(size, 1)];
+      for (int i = 0; i < this.stripes.length; i++) {
+        this.stripes[i] = new ReentrantLock();
+      }
+      this.mask = this.stripes.length - 1;
+    }
+
+    @Override
+    public ReentrantLock lockFor(K key) {
+      int hash = key.hashCode();
+      return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    @Override
+    public void remove(K key) {
+      // stripes outlive the keys hashed onto them
+    }
+
+    @Override
+    public void removeAll(Collection<K> keys) {
+    }
+
+    @Override
+    public int size() {
+      return stripes.length;
+    }
+  }
+
+  private static class NoLockTable<K> implements LockTable<K> {
+    @Override
+    public ReentrantLock lockFor(K key) {
+      return null;
+    }
+
+    @Override
+    public void remove(K key) {
+    }
+
+    @Override
+    public void removeAll(Collection<K> keys) {
+    }
+
+    @Override
+    public int size() {
+      return 0;
+    }
+  }
+}
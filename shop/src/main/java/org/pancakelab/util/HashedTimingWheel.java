@@ -0,0 +1,155 @@
+package org.pancakelab.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+// Timers keyed by K on a ring of buckets, one bucket per tick. Scheduling, rescheduling and
+// cancelling unlink or link a single node (found through a hash map), so each is O(1) however
+// many timers are pending; advancing touches only the buckets of the ticks that passed. Deadlines
+// further out than one turn of the wheel stay in their bucket until their turn comes. Timers fire
+// at the first tick at or after their deadline, i.e. up to one tick late, never early.
+public class HashedTimingWheel<K, V> {
+
+  private final long tickNanos;
+  private final Node<K, V>[] buckets;
+  private final int mask;
+  private final Map<K, Node<K, V>> nodes = new HashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private long currentTick;
+
+  public HashedTimingWheel(long tickNanos, int ticksPerWheel, long startNanos) {
+    if (tickNanos < 1) {
+      throw new IllegalArgumentException("Tick must be positive but was " + tickNanos + " ns");
+    }
+    if (ticksPerWheel < 1) {
+      throw new IllegalArgumentException("Wheel needs at least one bucket but had " + ticksPerWheel);
+    }
+    int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+    this.tickNanos = tickNanos;
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Node<K, V>[] buckets = (Node<K, V>[]) new Node[Math.max(size, 1)];
+    this.buckets = buckets;
+    this.mask = buckets.length - 1;
+    this.currentTick = startNanos / tickNanos;
+  }
+
+  // Replaces any timer already pending for the key.
+  public void schedule(K key, V value, long deadlineNanos) {
+    lock.lock();
+    try {
+      Node<K, V> node = nodes.get(key);
+      if (node == null) {
+        node = new Node<>(key);
+        nodes.put(key, node);
+      } else {
+        unlink(node);
+      }
+      node.value = value;
+      node.tick = Math.max(Math.floorDiv(deadlineNanos + tickNanos - 1, tickNanos), currentTick + 1);
+      link(node, (int) (node.tick & mask));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public boolean cancel(K key) {
+    lock.lock();
+    try {
+      Node<K, V> node = nodes.remove(key);
+      if (node == null) {
+        return false;
+      }
+      unlink(node);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int size() {
+    lock.lock();
+    try {
+      return nodes.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Fires every timer due by now. The callbacks run after the wheel's lock is released, so they
+  // may schedule or cancel timers themselves. Returns the number of timers fired.
+  public int advance(long nowNanos, BiConsumer<K, V> expired) {
+    List<Node<K, V>> due = new ArrayList<>();
+    lock.lock();
+    try {
+      long target = Math.floorDiv(nowNanos, tickNanos);
+      if (target - currentTick >= buckets.length) {
+        // a pause of a full turn or more: one pass over every bucket covers all missed ticks
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+          collect(bucket, target, due);
+        }
+      } else {
+        for (long tick = currentTick + 1; tick <= target; tick++) {
+          collect((int) (tick & mask), tick, due);
+        }
+      }
+      currentTick = Math.max(currentTick, target);
+    } finally {
+      lock.unlock();
+    }
+    due.forEach(node -> expired.accept(node.key, node.value));
+    return due.size();
+  }
+
+  private void collect(int bucket, long tick, List<Node<K, V>> due) {
+    Node<K, V> node = buckets[bucket];
+    while (node != null) {
+      Node<K, V> next = node.next;
+      if (node.tick <= tick) {
+        unlink(node);
+        nodes.remove(node.key);
+        due.add(node);
+      }
+      node = next;
+    }
+  }
+
+  private void link(Node<K, V> node, int bucket) {
+    node.bucket = bucket;
+    node.previous = null;
+    node.next = buckets[bucket];
+    if (node.next != null) {
+      node.next.previous = node;
+    }
+    buckets[bucket] = node;
+  }
+
+  private void unlink(Node<K, V> node) {
+    if (node.previous == null) {
+      buckets[node.bucket] = node.next;
+    } else {
+      node.previous.next = node.next;
+    }
+    if (node.next != null) {
+      node.next.previous = node.previous;
+    }
+    node.previous = null;
+    node.next = null;
+  }
+
+  private static final class Node<K, V> {
+    private final K key;
+    private V value;
+    private long tick;
+    private int bucket;
+    private Node<K, V> previous;
+    private Node<K, V> next;
+
+    private Node(K key) {
+      this.key = key;
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package org.pancakelab.util;
+
+import java.util.UUID;
+
+@FunctionalInterface
+public interface IdGenerator {
+  UUID next();
+}
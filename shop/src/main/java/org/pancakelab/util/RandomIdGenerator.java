@@ -0,0 +1,10 @@
+package org.pancakelab.util;
+
+import java.util.UUID;
+
+public class RandomIdGenerator implements IdGenerator {
+  @Override
+  public UUID next() {
+    return UUID.randomUUID();
+  }
+}
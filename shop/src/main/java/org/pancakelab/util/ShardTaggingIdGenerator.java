@@ -0,0 +1,33 @@
+package org.pancakelab.util;
+
+import java.util.UUID;
+
+// Stamps the shard index into the lowest byte of every ID, so an order or pancake can be routed
+// back to the shard that created it without keeping an ID-to-shard map. That costs 8 of the
+// delegate's random bits.
+public class ShardTaggingIdGenerator implements IdGenerator {
+  public static final int MAX_SHARDS = 256;
+  private static final long TAG_MASK = MAX_SHARDS - 1;
+
+  private final IdGenerator delegate;
+  private final int shard;
+
+  public ShardTaggingIdGenerator(IdGenerator delegate, int shard) {
+    if (shard < 0 || shard >= MAX_SHARDS) {
+      throw new IllegalArgumentException("Shard index must be between 0 and " + (MAX_SHARDS - 1) + " but was " + shard);
+    }
+    this.delegate = delegate;
+    this.shard = shard;
+  }
+
+  @Override
+  public UUID next() {
+    UUID id = delegate.next();
+    return new UUID(id.getMostSignificantBits(), (id.getLeastSignificantBits() & ~TAG_MASK) | shard);
+  }
+
+  // IDs from elsewhere still map to some shard, which then simply doesn't know them.
+  public static int shardOf(UUID id, int shards) {
+    return (int) (id.getLeastSignificantBits() & TAG_MASK) % shards;
+  }
+}
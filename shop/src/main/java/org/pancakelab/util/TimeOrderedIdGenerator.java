@@ -0,0 +1,38 @@
+package org.pancakelab.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// UUIDv7 layout: 48-bit Unix millis, version, 12-bit sequence, variant, 62 random bits. Each thread
+// keeps its own clock and sequence so IDs it hands out are strictly increasing without any shared
+// state; uniqueness across threads comes from the random tail drawn from ThreadLocalRandom.
+public class TimeOrderedIdGenerator implements IdGenerator {
+  private static final int SEQUENCE_BITS = 12;
+  private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+  private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+  @Override
+  public UUID next() {
+    State current = state.get();
+    long now = System.currentTimeMillis();
+    if (now > current.millis) {
+      current.millis = now;
+      current.sequence = ThreadLocalRandom.current().nextLong(MAX_SEQUENCE / 2);
+    } else if (current.sequence == MAX_SEQUENCE) {
+      // sequence exhausted within one millisecond: borrow the next one instead of waiting
+      current.millis++;
+      current.sequence = 0;
+    } else {
+      current.sequence++;
+    }
+    long most = (current.millis << 16) | (0x7L << 12) | current.sequence;
+    long least = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    return new UUID(most, least);
+  }
+
+  private static class State {
+    private long millis;
+    private long sequence;
+  }
+}
@@ -0,0 +1,37 @@
+package org.pancakelab.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// The build targets Java 17, so virtual threads are looked up reflectively: on a Java 21+ runtime
+// every task gets its own virtual thread, older runtimes fall back to a bounded platform pool.
+public final class VirtualThreads {
+  private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = lookup();
+
+  private VirtualThreads() {
+  }
+
+  public static boolean available() {
+    return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+  }
+
+  public static ExecutorService newThreadPerTaskExecutor() {
+    if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+      try {
+        return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Could not create virtual thread executor", e);
+      }
+    }
+    return Executors.newFixedThreadPool(Math.max(64, Runtime.getRuntime().availableProcessors() * 4));
+  }
+
+  private static Method lookup() {
+    try {
+      return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package org.pancakelab.validators;
+
+import org.pancakelab.model.PackedIngredients;
+import org.pancakelab.model.Pancake;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+// The menu as data: which ingredients are served, how many of each fit on one pancake, which
+// must never share one, and how many a pancake may carry in total. It is compiled once, when
+// loaded, into one bitmask per ingredient, so checking a recipe is a few array reads and bit
+// tests per ingredient with no allocation. Loaded from properties like:
+//
+//   max-ingredients=5
+//   ingredients=MilkChocolate,DarkChocolate,Hazelnuts,WhippedCream
+//   max.WhippedCream=2
+//   incompatible.DarkChocolate=MilkChocolate
+//
+// Incompatibility is symmetric, so each pair only needs listing once.
+public final class IngredientCatalog {
+  private static final Pancake.Ingredient[] INGREDIENTS = Pancake.Ingredient.values();
+  private static final int DEFAULT_MAX_INGREDIENTS = 5;
+
+  private final int maxIngredients;
+  private final long served;
+  private final long[] incompatible;
+  private final int[] maxQuantity;
+
+  private IngredientCatalog(int maxIngredients, long served, long[] incompatible, int[] maxQuantity) {
+    this.maxIngredients = maxIngredients;
+    this.served = served;
+    this.incompatible = incompatible;
+    this.maxQuantity = maxQuantity;
+  }
+
+  // Everything on the enum, up to five per pancake in any combination: the rules the shop had
+  // before catalogs existed.
+  public static IngredientCatalog standard() {
+    int[] maxQuantity = new int[INGREDIENTS.length];
+    Arrays.fill(maxQuantity, DEFAULT_MAX_INGREDIENTS);
+    return new IngredientCatalog(DEFAULT_MAX_INGREDIENTS, (1L << INGREDIENTS.length) - 1,
+        new long[INGREDIENTS.length], maxQuantity);
+  }
+
+  public static IngredientCatalog load(Path file) throws IOException {
+    try (Reader reader = Files.newBufferedReader(file)) {
+      return load(reader);
+    }
+  }
+
+  public static IngredientCatalog load(Reader reader) throws IOException {
+    Properties properties = new Properties();
+    properties.load(reader);
+    return load(properties);
+  }
+
+  public static IngredientCatalog load(Properties properties) {
+    int maxIngredients = Integer.parseInt(properties.getProperty("max-ingredients", String.valueOf(DEFAULT_MAX_INGREDIENTS)).trim());
+    if (maxIngredients < 0 || maxIngredients > PackedIngredients.CAPACITY) {
+      throw new IllegalArgumentException(
+          "max-ingredients must be between 0 and " + PackedIngredients.CAPACITY + " but was " + maxIngredients);
+    }
+    String servedList = properties.getProperty("ingredients");
+    if (servedList == null) {
+      throw new IllegalArgumentException("Catalog doesn't list its ingredients");
+    }
+    long served = maskOf(servedList);
+    long[] incompatible = new long[INGREDIENTS.length];
+    int[] maxQuantity = new int[INGREDIENTS.length];
+    Arrays.fill(maxQuantity, maxIngredients);
+
+    for (String key : properties.stringPropertyNames()) {
+      if (key.startsWith("max.")) {
+        Pancake.Ingredient ingredient = ingredient(key.substring(4));
+        int quantity = Integer.parseInt(properties.getProperty(key).trim());
+        if (quantity < 1) {
+          throw new IllegalArgumentException(key + " must be positive but was " + quantity);
+        }
+        maxQuantity[ingredient.ordinal()] = Math.min(quantity, maxIngredients);
+      } else if (key.startsWith("incompatible.")) {
+        Pancake.Ingredient ingredient = ingredient(key.substring(13));
+        long others = maskOf(properties.getProperty(key));
+        incompatible[ingredient.ordinal()] |= others;
+        for (Pancake.Ingredient other : INGREDIENTS) {
+          if ((others & bit(other)) != 0) {
+            incompatible[other.ordinal()] |= bit(ingredient);
+          }
+        }
+      } else if (!key.equals("max-ingredients") && !key.equals("ingredients")) {
+        throw new IllegalArgumentException("Unknown catalog entry: " + key);
+      }
+    }
+    return new IngredientCatalog(maxIngredients, served, incompatible, maxQuantity);
+  }
+
+  public int maxIngredients() {
+    return maxIngredients;
+  }
+
+  public boolean serves(Pancake.Ingredient ingredient) {
+    return (served & bit(ingredient)) != 0;
+  }
+
+  public boolean compatible(Pancake.Ingredient first, Pancake.Ingredient second) {
+    return (incompatible[first.ordinal()] & bit(second)) == 0;
+  }
+
+  public int maxQuantity(Pancake.Ingredient ingredient) {
+    return maxQuantity[ingredient.ordinal()];
+  }
+
+  // Checks a whole packed recipe. Each ingredient is only compared with the ones added before
+  // it, which covers every pair once.
+  public void check(long packedIngredients) {
+    int count = PackedIngredients.count(packedIngredients);
+    if (count > maxIngredients) {
+      throw new IllegalStateException("Pancake can't have more than " + maxIngredients + " ingredients");
+    }
+    long seen = 0;
+    for (int i = 0; i < count; i++) {
+      int ordinal = (int) ((packedIngredients >>> (i * 8)) & 0xFF);
+      long bit = 1L << ordinal;
+      if ((served & bit) == 0) {
+        throw new IllegalStateException(INGREDIENTS[ordinal].getDescription() + " is not on the menu");
+      }
+      if ((incompatible[ordinal] & seen) != 0) {
+        throw new IllegalStateException(INGREDIENTS[ordinal].getDescription() + " can't go on a pancake with "
+            + INGREDIENTS[Long.numberOfTrailingZeros(incompatible[ordinal] & seen)].getDescription());
+      }
+      if ((seen & bit) != 0 && occurrences(packedIngredients, count, ordinal) > maxQuantity[ordinal]) {
+        throw new IllegalStateException(
+            "Pancake can't have more than " + maxQuantity[ordinal] + " portions of " + INGREDIENTS[ordinal].getDescription());
+      }
+      seen |= bit;
+    }
+  }
+
+  private static int occurrences(long packedIngredients, int count, int ordinal) {
+    int occurrences = 0;
+    for (int i = 0; i < count; i++) {
+      if (((packedIngredients >>> (i * 8)) & 0xFF) == ordinal) {
+        occurrences++;
+      }
+    }
+    return occurrences;
+  }
+
+  private static long maskOf(String names) {
+    long mask = 0;
+    for (String name : names.split(",")) {
+      if (!name.isBlank()) {
+        mask |= bit(ingredient(name));
+      }
+    }
+    return mask;
+  }
+
+  private static Pancake.Ingredient ingredient(String name) {
+    try {
+      return Pancake.Ingredient.valueOf(name.trim());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown ingredient in catalog: " + name.trim());
+    }
+  }
+
+  private static long bit(Pancake.Ingredient ingredient) {
+    return 1L << ingredient.ordinal();
+  }
+}
@@ -0,0 +1,39 @@
+package org.pancakelab.validators;
+
+import org.pancakelab.model.Pancake;
+
+public class PancakeValidator implements Validator<Pancake> {
+  // Swapped whole: a check reads the field once, so it sees either the old catalog or the new
+  // one, never a mix, and ordering traffic never waits for a swap.
+  private volatile IngredientCatalog catalog;
+
+  public PancakeValidator() {
+    this(IngredientCatalog.standard());
+  }
+
+  public PancakeValidator(IngredientCatalog catalog) {
+    this.catalog = catalog;
+  }
+
+  public IngredientCatalog catalog() {
+    return catalog;
+  }
+
+  public void useCatalog(IngredientCatalog catalog) {
+    this.catalog = catalog;
+  }
+
+  @Override
+  public void validate(Pancake in) {
+    IngredientCatalog current = catalog;
+    if(in.getIngredientCount() > current.maxIngredients()) {
+      throw new IllegalStateException("Pancake can't have more than " + current.maxIngredients() + " ingredients");
+    }
+    current.check(in.getPackedIngredients());
+  }
+
+  // For checking a recipe before it is applied to a pancake.
+  public void validateIngredients(long packedIngredients) {
+    catalog.check(packedIngredients);
+  }
+}
@@ -0,0 +1,177 @@
+package org.pancakelab.repository.durable;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WriteAheadLogTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void failedWriteCutsTheSegmentBackAndFailsClosed() throws Exception {
+    TearingChannel[] channels = new TearingChannel[1];
+    WriteAheadLog log = new WriteAheadLog(directory, 0, path -> channels[0] = new TearingChannel(open(path)));
+    byte[] durable = new byte[100];
+
+    assertThat(log.append(durable).get()).isZero();
+    channels[0].tearNextWrite = true;
+    CompletableFuture<Long> torn = log.append(new byte[300]);
+
+    assertThatThrownBy(torn::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IOException.class);
+    assertThat(Files.size(segment(0))).isEqualTo(durable.length);
+    assertThatThrownBy(() -> log.append(new byte[10]).get())
+        .hasCauseInstanceOf(IllegalStateException.class)
+        .hasRootCauseMessage("disk full");
+    assertThatThrownBy(() -> log.rotate().get()).hasCauseInstanceOf(IllegalStateException.class);
+    log.close();
+    assertThat(Files.size(segment(0))).isEqualTo(durable.length);
+  }
+
+  @Test
+  void failedRotationFailsClosed() throws Exception {
+    WriteAheadLog log = new WriteAheadLog(directory, 0, path -> {
+      if (path.equals(segment(1))) {
+        throw new IOException("no space for a new segment");
+      }
+      return open(path);
+    });
+    CompletableFuture<Long> before = log.append(new byte[10]);
+    CompletableFuture<Long> rotated = log.rotate();
+
+    assertThat(before.get()).isZero();
+    assertThatThrownBy(rotated::get).hasCauseInstanceOf(UncheckedIOException.class);
+    assertThatThrownBy(() -> log.append(new byte[10]).get()).hasCauseInstanceOf(IllegalStateException.class);
+    log.close();
+    assertThat(Files.size(segment(0))).isEqualTo(10);
+  }
+
+  private Path segment(long number) {
+    return Frames.path(directory, WriteAheadLog.PREFIX, number, WriteAheadLog.SUFFIX);
+  }
+
+  private static FileChannel open(Path path) throws IOException {
+    return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  // Writes half of what it is given on the write it was told to tear, then fails like a full disk.
+  private static class TearingChannel extends FileChannel {
+    private final FileChannel delegate;
+    private volatile boolean tearNextWrite;
+
+    private TearingChannel(FileChannel delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      if (!tearNextWrite) {
+        return delegate.write(src);
+      }
+      tearNextWrite = false;
+      ByteBuffer half = src.duplicate();
+      half.limit(src.position() + src.remaining() / 2);
+      delegate.write(half);
+      throw new IOException("disk full");
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      return delegate.read(dst);
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+      return delegate.read(dsts, offset, length);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+      return delegate.write(srcs, offset, length);
+    }
+
+    @Override
+    public long position() throws IOException {
+      return delegate.position();
+    }
+
+    @Override
+    public FileChannel position(long newPosition) throws IOException {
+      delegate.position(newPosition);
+      return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+      return delegate.size();
+    }
+
+    @Override
+    public FileChannel truncate(long size) throws IOException {
+      delegate.truncate(size);
+      return this;
+    }
+
+    @Override
+    public void force(boolean metaData) throws IOException {
+      delegate.force(metaData);
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+      return delegate.transferTo(position, count, target);
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+      return delegate.transferFrom(src, position, count);
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException {
+      return delegate.read(dst, position);
+    }
+
+    @Override
+    public int write(ByteBuffer src, long position) throws IOException {
+      return delegate.write(src, position);
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+      return delegate.map(mode, position, size);
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared) throws IOException {
+      return delegate.lock(position, size, shared);
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+      return delegate.tryLock(position, size, shared);
+    }
+
+    @Override
+    protected void implCloseChannel() throws IOException {
+      delegate.close();
+    }
+  }
+}
@@ -0,0 +1,556 @@
+package org.pancakelab.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.pancakelab.exception.IncorrectOrderStatusException;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.exception.PancakeNotFoundException;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Delivery;
+import org.pancakelab.model.DeliveryManifest;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.metrics.Outcome;
+import org.pancakelab.service.metrics.ServiceMetrics;
+import org.pancakelab.service.metrics.ServiceOperation;
+import org.pancakelab.util.EntityLockManager;
+import org.pancakelab.util.IdGenerator;
+import org.pancakelab.util.TimeOrderedIdGenerator;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PancakeServiceTest {
+
+  @Mock
+  private Address address;
+  @Mock
+  private AddressValidator addressValidator;
+  @Mock
+  private PancakeValidator pancakeValidator;
+  @Mock
+  private OrderRepository orderRepository;
+  @Mock
+  private PancakeRepository pancakeRepository;
+  @Mock
+  private Order order;
+  @Mock
+  private Pancake pancake;
+  @Mock
+  private UUID orderId;
+  @Mock
+  private UUID pancakeId;
+  @Mock
+  private OrderLog orderLog;
+  @Spy
+  private EntityLockManager<UUID> orderLockManager = new EntityLockManager<>();
+  @Spy
+  private EntityLockManager<UUID> pancakeLockManager = EntityLockManager.striped(16);
+  @Spy
+  private IdGenerator idGenerator = new TimeOrderedIdGenerator();
+  @Spy
+  private PreparationQueue preparationQueue = new PreparationQueue(16);
+  @Spy
+  private ServiceMetrics metrics = ServiceMetrics.enabled();
+  private PancakeService pancakeService;
+
+  // Built by hand: two lock-manager spies of the same type leave @InjectMocks guessing which goes where.
+  @BeforeEach
+  void setUp() {
+    pancakeService = new PancakeService(addressValidator, pancakeValidator, orderRepository, pancakeRepository,
+        orderLog, orderLockManager, pancakeLockManager, idGenerator, preparationQueue, metrics);
+  }
+
+  @Test
+  void startOrderWithValidAddress() {
+    doNothing().when(addressValidator).validate(any());
+    when(orderRepository.save(any())).thenReturn(order);
+    UUID uuid = pancakeService.startOrder(address);
+
+    assertThat(uuid).isNotNull();
+  }
+
+  @Test
+  void startOrderWithInvalidAddress() {
+    doThrow(new IllegalArgumentException()).when(addressValidator).validate(any());
+
+    assertThatThrownBy(() -> pancakeService.startOrder(address))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void recordsOutcomesPerOperation() throws OrderUpdateException {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order), Optional.empty());
+    when(order.compareAndSetStatus(Order.Status.Completed, Order.Status.Prepared)).thenReturn(true);
+
+    pancakeService.prepareOrder(orderId);
+    assertThatThrownBy(() -> pancakeService.prepareOrder(orderId)).isInstanceOf(OrderNotFoundException.class);
+    doThrow(new IllegalArgumentException("bad address")).when(addressValidator).validate(address);
+    assertThatThrownBy(() -> pancakeService.startOrder(address)).isInstanceOf(IllegalArgumentException.class);
+
+    assertThat(pancakeService.metrics().get(ServiceOperation.PrepareOrder).outcomes())
+        .containsEntry(Outcome.Success, 1L)
+        .containsEntry(Outcome.OrderNotFound, 1L);
+    assertThat(pancakeService.metrics().get(ServiceOperation.PrepareOrder).calls()).isEqualTo(2);
+    assertThat(pancakeService.metrics().get(ServiceOperation.StartOrder).outcomes())
+        .containsExactly(entry(Outcome.InvalidInput, 1L));
+  }
+
+  @Test
+  void addPancakeWhenOrderNotFound() {
+    when(orderRepository.find(any())).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> pancakeService.addPancake(orderId))
+        .isInstanceOf(OrderNotFoundException.class);
+  }
+
+  @Test
+  void addPancakeToValidOrder() throws OrderUpdateException {
+    when(orderRepository.find(any())).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(Order.Status.Pending);
+    when(pancakeRepository.countByOrderId(orderId)).thenReturn(1);
+    when(pancakeRepository.save(any())).thenReturn(pancake);
+    UUID pancakeId = pancakeService.addPancake(orderId);
+
+    assertThat(pancakeId).isNotNull();
+    verify(orderLog, times(1)).logAddPancake(eq(order), argThat(p -> p.getDescription().equals("plain pancake")), eq(1));
+    verify(pancakeRepository, times(1)).save(any());
+  }
+
+  @ParameterizedTest
+  @EnumSource(
+      value = Order.Status.class,
+      names = {"Pending"},
+      mode = EnumSource.Mode.EXCLUDE
+  )
+  void addPancakeWhenOrderIsNoLongerPending(Order.Status status) {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(status);
+
+    assertThatThrownBy(() -> pancakeService.addPancake(orderId))
+        .isInstanceOf(IncorrectOrderStatusException.class)
+        .hasMessageContaining("but was in status: " + status);
+    assertThatThrownBy(() -> pancakeService.addPancakes(orderId, List.of(List.of())))
+        .isInstanceOf(IncorrectOrderStatusException.class);
+    assertThatThrownBy(() -> pancakeService.removePancake(orderId, pancakeId))
+        .isInstanceOf(IncorrectOrderStatusException.class);
+    verify(pancakeRepository, never()).save(any());
+    verify(pancakeRepository, never()).saveAll(any());
+    verify(pancakeRepository, never()).remove(any());
+    verifyNoInteractions(orderLog);
+  }
+
+  @Test
+  void addPancakesWhenOrderNotFound() {
+    when(orderRepository.find(any())).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> pancakeService.addPancakes(orderId, List.of(List.of())))
+        .isInstanceOf(OrderNotFoundException.class);
+    verify(pancakeRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void addPancakesWithInvalidRecipeSavesNothing() {
+    doNothing().doThrow(IllegalStateException.class).when(pancakeValidator).validate(any());
+
+    assertThatThrownBy(() -> pancakeService.addPancakes(orderId, List.of(
+        List.of(Pancake.Ingredient.Hazelnuts),
+        List.of(Pancake.Ingredient.DarkChocolate, Pancake.Ingredient.DarkChocolate))))
+        .isInstanceOf(IllegalStateException.class);
+    verify(orderRepository, never()).find(any());
+    verify(pancakeRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void addPancakesToValidOrder() throws OrderUpdateException {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(Order.Status.Pending);
+    when(pancakeRepository.countByOrderId(orderId)).thenReturn(2);
+
+    List<UUID> pancakeIds = pancakeService.addPancakes(orderId, List.of(
+        List.of(),
+        List.of(Pancake.Ingredient.MilkChocolate, Pancake.Ingredient.WhippedCream),
+        List.of(Pancake.Ingredient.Hazelnuts)));
+
+    assertThat(pancakeIds).hasSize(3).doesNotContainNull().doesNotHaveDuplicates();
+    verify(pancakeValidator, times(3)).validate(any());
+    verify(pancakeRepository, times(1)).saveAll(argThat(pancakes -> pancakes.size() == 3));
+    verify(pancakeRepository, never()).save(any());
+    verify(orderLog, times(1)).logAddPancakes(eq(order), argThat(pancakes -> pancakes.size() == 3), eq(2));
+  }
+
+  @Test
+  void removePancakeWhenOrderNotFound() {
+    when(orderRepository.find(any())).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> pancakeService.removePancake(orderId, pancakeId))
+        .isInstanceOf(OrderNotFoundException.class);
+  }
+
+  @Test
+  void removePancakeFromWrongOrder() {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(Order.Status.Pending);
+    when(pancakeRepository.find(pancakeId)).thenReturn(Optional.of(pancake));
+    when(pancake.getOrderId()).thenReturn(mock(UUID.class));
+    when(order.getId()).thenReturn(orderId);
+
+    assertThatThrownBy(() -> pancakeService.removePancake(orderId, pancakeId))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void removePancakeFromValidOrder() throws OrderUpdateException {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(Order.Status.Pending);
+    when(pancakeRepository.find(pancakeId)).thenReturn(Optional.of(pancake));
+    when(pancakeRepository.countByOrderId(orderId)).thenReturn(1);
+    when(pancakeRepository.remove(pancakeId)).thenReturn(pancake);
+    when(pancake.getOrderId()).thenReturn(orderId);
+    when(order.getId()).thenReturn(orderId);
+
+    UUID result = pancakeService.removePancake(orderId, pancakeId);
+    assertThat(result).isEqualTo(pancakeId);
+    verify(pancakeRepository, times(1)).remove(pancakeId);
+    verify(orderLog, times(1)).logRemovePancakes(order, pancake, 1);
+    verify(orderLockManager, times(1)).withLock(eq(orderId), any());
+  }
+
+  @Test
+  void addIngredientWhenPancakeNotFound() {
+    when(pancakeRepository.find(pancakeId)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> pancakeService.addIngredient(pancakeId, Pancake.Ingredient.DarkChocolate))
+        .isInstanceOf(PancakeNotFoundException.class);
+  }
+
+  @Test
+  void addIngredientToValidPancake() throws OrderUpdateException {
+    when(pancakeRepository.find(pancakeId)).thenReturn(Optional.of(pancake));
+    when(pancake.getOrderId()).thenReturn(orderId);
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(Order.Status.Pending);
+    when(pancakeRepository.update(pancake)).thenReturn(true);
+    when(pancake.getId()).thenReturn(pancakeId);
+    UUID saved = pancakeService.addIngredient(pancakeId, Pancake.Ingredient.DarkChocolate);
+
+    assertThat(saved).isEqualTo(pancakeId);
+    verify(orderLog, times(1)).logAddIngredient(pancake, Pancake.Ingredient.DarkChocolate);
+    verify(orderLockManager, times(1)).withLock(eq(orderId), any());
+    verifyNoInteractions(pancakeLockManager);
+  }
+
+  @Test
+  void pancakeWithTooManyIngredients() {
+    when(pancakeRepository.find(pancakeId)).thenReturn(Optional.of(pancake));
+    when(pancake.getOrderId()).thenReturn(orderId);
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(Order.Status.Pending);
+    doThrow(IllegalStateException.class).when(pancakeValidator).validateIngredients(anyLong());
+
+    assertThatThrownBy(() -> pancakeService.addIngredient(pancakeId, Pancake.Ingredient.DarkChocolate))
+        .isInstanceOf(IllegalStateException.class);
+    verify(pancake, never()).addIngredient(any());
+  }
+
+  @ParameterizedTest
+  @EnumSource(
+      value = Order.Status.class,
+      names = {"Pending"},
+      mode = EnumSource.Mode.EXCLUDE
+  )
+  void addIngredientWhenOrderIsNoLongerPending(Order.Status status) {
+    when(pancakeRepository.find(pancakeId)).thenReturn(Optional.of(pancake));
+    when(pancake.getOrderId()).thenReturn(orderId);
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(status);
+
+    assertThatThrownBy(() -> pancakeService.addIngredient(pancakeId, Pancake.Ingredient.DarkChocolate))
+        .isInstanceOf(IncorrectOrderStatusException.class);
+    verify(pancake, never()).addIngredient(any());
+    verify(pancakeRepository, never()).update(any());
+  }
+
+  @Test
+  void cancelOrderWhenOrderNotFound() {
+    when(orderRepository.find(orderId)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> pancakeService.cancelOrder(orderId))
+        .isInstanceOf(OrderNotFoundException.class);
+  }
+
+  @Test
+  void cancelOrder() throws OrderUpdateException {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(pancakeRepository.removeByOrderId(orderId)).thenReturn(List.of(pancake));
+    when(orderRepository.remove(orderId)).thenReturn(order);
+    when(pancake.getId()).thenReturn(pancakeId);
+    when(order.getStatus()).thenReturn(Order.Status.Pending);
+    when(order.compareAndSetStatus(Order.Status.Pending, Order.Status.Cancelled)).thenReturn(true);
+
+    assertThat(pancakeService.cancelOrder(orderId)).isEqualTo(orderId);
+    verify(orderRepository, times(1)).remove(orderId);
+    verify(pancakeRepository, times(1)).removeByOrderId(orderId);
+    verify(pancakeRepository, never()).findByOrderId(any());
+    verify(orderLog, times(1)).logCancelOrder(order, 1);
+  }
+
+  @Test
+  void cancelOrderRetriesWhenStatusMovesUnderneath() throws Exception {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(Order.Status.Pending, Order.Status.Completed);
+    when(order.compareAndSetStatus(Order.Status.Pending, Order.Status.Cancelled)).thenReturn(false);
+    when(order.compareAndSetStatus(Order.Status.Completed, Order.Status.Cancelled)).thenReturn(true);
+    preparationQueue.reserve();
+    preparationQueue.published();
+
+    pancakeService.cancelOrder(orderId);
+
+    verify(orderRepository, times(1)).remove(orderId);
+    assertThat(preparationQueue.size()).isZero();
+  }
+
+  @Test
+  void cancelOrderWhenAlreadyDelivered() {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(Order.Status.Delivered);
+
+    assertThatThrownBy(() -> pancakeService.cancelOrder(orderId))
+        .isInstanceOf(IncorrectOrderStatusException.class)
+        .hasMessageEndingWith("can't move to status: Cancelled from status: Delivered");
+    verify(orderRepository, never()).remove(orderId);
+  }
+
+  @Test
+  void completeOrder() throws OrderUpdateException {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(Order.Status.Pending);
+    when(order.compareAndSetStatus(Order.Status.Pending, Order.Status.Completed)).thenReturn(true);
+    when(orderRepository.saveIfPresent(order)).thenReturn(true);
+    when(order.getId()).thenReturn(orderId);
+
+    UUID result = pancakeService.completeOrder(orderId);
+
+    assertThat((result)).isEqualTo(orderId);
+    verify(orderRepository, times(1)).saveIfPresent(order);
+    assertThat(preparationQueue.size()).isEqualTo(1);
+  }
+
+  @Test
+  void completeOrderGivesBackTheSlotWhenTheOrderIsGoneBeforeItIsSaved() throws Exception {
+    OrderLifecycleListener listener = mock(OrderLifecycleListener.class);
+    pancakeService.addLifecycleListener(listener);
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(Order.Status.Pending);
+    when(order.compareAndSetStatus(Order.Status.Pending, Order.Status.Completed)).thenReturn(true);
+
+    assertThatThrownBy(() -> pancakeService.completeOrder(orderId))
+        .isInstanceOf(OrderNotFoundException.class);
+    assertThat(preparationQueue.size()).isZero();
+    assertThat(pancakeService.takeNextOrderToPrepare(Duration.ofMillis(10))).isEmpty();
+    verifyNoInteractions(listener);
+  }
+
+  @Test
+  void completeOrderForAMissingOrderDoesNotWaitForAFullKitchen() throws Exception {
+    for (int i = 0; i < preparationQueue.capacity(); i++) {
+      preparationQueue.reserve();
+    }
+    when(orderRepository.find(orderId)).thenReturn(Optional.empty());
+
+    assertThat(pancakeService.tryCompleteOrder(orderId).outcome()).isEqualTo(Outcome.OrderNotFound);
+    verify(preparationQueue, times(preparationQueue.capacity())).reserve();
+  }
+
+  @Test
+  void completeOrderWhenOrderNotFound() {
+    when(orderRepository.find(orderId)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> pancakeService.completeOrder(orderId))
+        .isInstanceOf(OrderNotFoundException.class);
+    assertThat(preparationQueue.size()).isZero();
+  }
+
+  @ParameterizedTest
+  @EnumSource(
+      value = Order.Status.class,
+      names = {"Pending"},
+      mode = EnumSource.Mode.EXCLUDE
+  )
+  void completeOrderWhenWrongStatus(Order.Status status) {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(status);
+
+    assertThatThrownBy(() -> pancakeService.completeOrder(orderId))
+        .isInstanceOf(IncorrectOrderStatusException.class)
+        .hasMessageContaining("but was in status: " + status);
+    verify(orderRepository, never()).saveIfPresent(any());
+    assertThat(preparationQueue.size()).isZero();
+  }
+
+  @Test
+  void prepareOrderWhenOrderNotFound() {
+    when(orderRepository.find(orderId)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> pancakeService.prepareOrder(orderId))
+        .isInstanceOf(OrderNotFoundException.class);
+  }
+
+  @ParameterizedTest
+  @EnumSource(
+      value = Order.Status.class,
+      names = {"Completed"},
+      mode = EnumSource.Mode.EXCLUDE
+  )
+  void prepareOrderWhenWrongStatus(Order.Status status) {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(status);
+
+    assertThatThrownBy(() -> pancakeService.prepareOrder(orderId))
+        .isInstanceOf(IncorrectOrderStatusException.class);
+  }
+
+  @Test
+  void prepareOrder() throws OrderUpdateException {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.compareAndSetStatus(Order.Status.Completed, Order.Status.Prepared)).thenReturn(true);
+    when(order.getId()).thenReturn(orderId);
+
+    UUID result = pancakeService.prepareOrder(orderId);
+
+    assertThat(result).isEqualTo(orderId);
+    verify(orderRepository, times(1)).saveIfPresent(order);
+  }
+
+  @Test
+  void takeNextOrderToPrepareSkipsOrdersClaimedElsewhere() throws Exception {
+    UUID otherOrderId = UUID.randomUUID();
+    Order otherOrder = mock(Order.class);
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.compareAndSetStatus(Order.Status.Pending, Order.Status.Completed)).thenReturn(true);
+    when(order.compareAndSetStatus(Order.Status.Completed, Order.Status.Prepared)).thenReturn(false);
+    when(order.getStatus()).thenReturn(Order.Status.Pending, Order.Status.Prepared);
+    when(orderRepository.saveIfPresent(order)).thenReturn(true);
+    when(order.getId()).thenReturn(orderId);
+    when(orderRepository.findOldestByStatus(Order.Status.Completed))
+        .thenReturn(Optional.of(orderId), Optional.of(otherOrderId));
+    when(orderRepository.find(otherOrderId)).thenReturn(Optional.of(otherOrder));
+    when(otherOrder.compareAndSetStatus(Order.Status.Completed, Order.Status.Prepared)).thenReturn(true);
+    when(otherOrder.getId()).thenReturn(otherOrderId);
+    pancakeService.completeOrder(orderId);
+
+    assertThat(pancakeService.takeNextOrderToPrepare()).isEqualTo(otherOrderId);
+    verify(orderRepository, times(1)).saveIfPresent(otherOrder);
+    assertThat(preparationQueue.size()).isZero();
+  }
+
+  @Test
+  void takeNextOrderToPrepareTimesOutWhenNothingIsCompleted() throws Exception {
+    assertThat(pancakeService.takeNextOrderToPrepare(Duration.ofMillis(10))).isEmpty();
+    verify(orderRepository, never()).findOldestByStatus(any());
+  }
+
+  @Test
+  void listPreparedOrders() {
+    List<UUID> orders = List.of(orderId);
+    when(orderRepository.findPrepared()).thenReturn(orders);
+
+    assertThat(pancakeService.listPreparedOrders()).isEqualTo(orders);
+  }
+
+  @Test
+  void listCompletedOrders() {
+    when(orderRepository.findCompleted()).thenReturn(List.of(orderId));
+    assertThat(pancakeService.listCompletedOrders()).containsExactly(orderId);
+  }
+
+  @Test
+  void deliverOrderWhenOrderNotFound() {
+    when(orderRepository.find(orderId)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> pancakeService.deliverOrder(orderId))
+        .isInstanceOf(OrderNotFoundException.class);
+  }
+
+  @ParameterizedTest
+  @EnumSource(
+      value = Order.Status.class,
+      names = {"Prepared"},
+      mode = EnumSource.Mode.EXCLUDE
+  )
+  void deliverOrderWhenWrongStatus(Order.Status status) {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.getStatus()).thenReturn(status);
+
+    assertThatThrownBy(() -> pancakeService.deliverOrder(orderId))
+        .isInstanceOf(IncorrectOrderStatusException.class);
+  }
+
+  @Test
+  void deliverOrder() throws OrderUpdateException {
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(order.compareAndSetStatus(Order.Status.Prepared, Order.Status.Delivered)).thenReturn(true);
+    when(order.getId()).thenReturn(orderId);
+    when(pancakeRepository.removeByOrderId(orderId)).thenReturn(List.of(pancake));
+    when(pancake.getDescription()).thenReturn("test description");
+    when(pancake.getId()).thenReturn(pancakeId);
+
+    Delivery result = pancakeService.deliverOrder(orderId);
+    assertThat(result.getOrder()).isEqualTo(order);
+    assertThat(result.getPancakes()).isEqualTo(List.of("test description"));
+    verify(orderRepository, times(1)).remove(orderId);
+    verify(orderLog, times(1)).logDeliverOrder(order, 1);
+  }
+
+  @Test
+  void deliverOrdersSkipsOrdersThatAreNoLongerPrepared() throws OrderUpdateException {
+    UUID pendingOrderId = UUID.randomUUID();
+    UUID missingOrderId = UUID.randomUUID();
+    Order pendingOrder = mock(Order.class);
+    when(orderRepository.find(orderId)).thenReturn(Optional.of(order));
+    when(orderRepository.find(pendingOrderId)).thenReturn(Optional.of(pendingOrder));
+    when(orderRepository.find(missingOrderId)).thenReturn(Optional.empty());
+    when(order.compareAndSetStatus(Order.Status.Prepared, Order.Status.Delivered)).thenReturn(true);
+    when(order.getId()).thenReturn(orderId);
+    when(pancakeRepository.removeByOrderId(orderId)).thenReturn(List.of(pancake));
+    when(pancake.getDescription()).thenReturn("test description");
+
+    DeliveryManifest manifest = pancakeService.deliverOrders(List.of(pendingOrderId, orderId, missingOrderId));
+
+    assertThat(manifest.getDeliveries()).extracting(Delivery::getOrder).containsExactly(order);
+    assertThat(manifest.getSkippedOrders()).containsExactly(pendingOrderId, missingOrderId);
+    assertThat(manifest.getPancakeCount()).isEqualTo(1);
+    verify(orderRepository, times(1)).remove(orderId);
+    verify(orderRepository, never()).remove(pendingOrderId);
+  }
+
+  @Test
+  void closingTheServiceClosesItsOrderLog() {
+    pancakeService.close();
+
+    verify(orderLog).close();
+  }
+}
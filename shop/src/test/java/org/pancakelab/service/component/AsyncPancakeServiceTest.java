@@ -0,0 +1,130 @@
+package org.pancakelab.service.component;
+
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.IncorrectOrderStatusException;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Delivery;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.AsyncPancakeService;
+import org.pancakelab.service.OrderLog;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncPancakeServiceTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+  private final PancakeService pancakeService = new PancakeService(
+      new AddressValidator(),
+      new PancakeValidator(),
+      new OrderRepository(),
+      new PancakeRepository(),
+      new OrderLog());
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+  private final AsyncPancakeService asyncService = new AsyncPancakeService(pancakeService, executor);
+
+  @AfterEach
+  void close() {
+    asyncService.close();
+    executor.shutdown();
+    pancakeService.close();
+  }
+
+  @Test
+  void pipelinesTheStepsOfOneOrder() {
+    UUID orderId = asyncService.startOrder(new Address(4, 2)).join();
+
+    asyncService.addPancake(orderId);
+    asyncService.addPancakes(orderId, List.of(List.of(Pancake.Ingredient.Hazelnuts), List.of()));
+    CompletableFuture<List<String>> view = asyncService.viewOrder(orderId);
+    asyncService.completeOrder(orderId);
+    asyncService.prepareOrder(orderId);
+    CompletableFuture<Delivery> delivery = asyncService.deliverOrder(orderId);
+
+    assertThat(view).succeedsWithin(TIMEOUT).asInstanceOf(InstanceOfAssertFactories.LIST).hasSize(3);
+    assertThat(delivery).succeedsWithin(TIMEOUT)
+        .satisfies(d -> assertThat(d.getPancakes()).hasSize(3));
+  }
+
+  @Test
+  void keepsCallsForTheSameKeyInOrder() {
+    UUID orderId = asyncService.startOrder(new Address(1, 1)).join();
+    UUID pancakeId = asyncService.addPancake(orderId).join();
+
+    for (int round = 0; round < 50; round++) {
+      // ingredients queue with the order's other calls, so the view sees all three
+      asyncService.addIngredient(orderId, pancakeId, Pancake.Ingredient.DarkChocolate);
+      asyncService.addIngredient(orderId, pancakeId, Pancake.Ingredient.WhippedCream);
+      asyncService.addIngredient(orderId, pancakeId, Pancake.Ingredient.Hazelnuts);
+      CompletableFuture<List<String>> view = asyncService.viewOrder(orderId);
+      asyncService.removePancake(orderId, pancakeId);
+      CompletableFuture<UUID> replaced = asyncService.addPancake(orderId);
+
+      assertThat(view).succeedsWithin(TIMEOUT).asInstanceOf(InstanceOfAssertFactories.LIST)
+          .containsExactly("Pancake with 3 ingredients: dark chocolate, whipped cream, hazelnuts");
+      pancakeId = replaced.join();
+    }
+  }
+
+  @Test
+  void runsManyOrdersInParallelWithoutLosingUpdates() {
+    List<UUID> orderIds = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      orderIds.add(asyncService.startOrder(new Address(i % 100 + 1, 1)).join());
+    }
+    List<CompletableFuture<?>> calls = new ArrayList<>();
+    for (int pancake = 0; pancake < 20; pancake++) {
+      for (UUID orderId : orderIds) {
+        calls.add(asyncService.addPancake(orderId));
+      }
+    }
+    CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+
+    for (UUID orderId : orderIds) {
+      assertThat(asyncService.viewOrder(orderId)).succeedsWithin(TIMEOUT).asInstanceOf(InstanceOfAssertFactories.LIST).hasSize(20);
+    }
+    assertThat(asyncService.busyKeys()).isZero();
+  }
+
+  @Test
+  void failuresCompleteExceptionallyWithoutBlockingLaterCalls() {
+    UUID orderId = asyncService.startOrder(new Address(2, 2)).join();
+
+    CompletableFuture<UUID> prepared = asyncService.prepareOrder(orderId);
+    CompletableFuture<UUID> completed = asyncService.completeOrder(orderId);
+    CompletableFuture<UUID> missing = asyncService.addPancake(UUID.randomUUID());
+
+    assertThat(prepared).failsWithin(TIMEOUT)
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(IncorrectOrderStatusException.class);
+    assertThat(completed).succeedsWithin(TIMEOUT).isEqualTo(orderId);
+    assertThat(missing).failsWithin(TIMEOUT)
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(OrderNotFoundException.class);
+  }
+
+  @Test
+  void defaultsToItsOwnExecutor() {
+    try (AsyncPancakeService ownExecutor = new AsyncPancakeService(pancakeService)) {
+      UUID orderId = ownExecutor.startOrder(new Address(3, 3)).join();
+      assertThat(ownExecutor.viewOrder(orderId)).succeedsWithin(TIMEOUT).asInstanceOf(InstanceOfAssertFactories.LIST).isEmpty();
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package org.pancakelab.service.component;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Delivery;
+import org.pancakelab.model.DeliveryManifest;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.DeliveryBatcher;
+import org.pancakelab.service.OrderLog;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeliveryBatcherTest {
+
+  private final OrderRepository orderRepository = new OrderRepository();
+  private final PancakeRepository pancakeRepository = new PancakeRepository();
+  private final PancakeService pancakeService = new PancakeService(
+      new AddressValidator(),
+      new PancakeValidator(),
+      orderRepository,
+      pancakeRepository,
+      new OrderLog()
+  );
+  private final LinkedBlockingQueue<DeliveryManifest> trips = new LinkedBlockingQueue<>();
+
+  @AfterEach
+  void close() {
+    pancakeService.close();
+  }
+
+  @Test
+  void fullBuildingBatchGoesOutInOneTrip() throws Exception {
+    try (DeliveryBatcher batcher = new DeliveryBatcher(pancakeService, 3, Duration.ofMinutes(1), trips::add)) {
+      UUID first = prepareOrder(new Address(1, 3));
+      prepareOrder(new Address(2, 1));
+      UUID second = prepareOrder(new Address(1, 1));
+      UUID third = prepareOrder(new Address(1, 2));
+
+      DeliveryManifest manifest = trips.poll(1, TimeUnit.SECONDS);
+      assertThat(manifest).isNotNull();
+      assertThat(manifest.getBuildingNumbers()).containsExactly(1);
+      assertThat(manifest.getDeliveries())
+          .extracting(d -> d.getOrder().getId())
+          .containsExactly(second, third, first);
+      assertThat(manifest.getPancakeCount()).isEqualTo(3);
+      assertThat(batcher.waitingOrders()).isEqualTo(1);
+    }
+
+    DeliveryManifest rest = trips.poll(1, TimeUnit.SECONDS);
+    assertThat(rest).isNotNull();
+    assertThat(rest.getBuildingNumbers()).containsExactly(2);
+    assertThat(orderRepository.findAll()).isEmpty();
+    assertThat(pancakeRepository.findAll()).isEmpty();
+  }
+
+  @Test
+  void oldBatchGoesOutBeforeItIsFull() throws Exception {
+    try (DeliveryBatcher batcher = new DeliveryBatcher(pancakeService, 100, Duration.ofMillis(50), trips::add)) {
+      prepareOrder(new Address(5, 1));
+      prepareOrder(new Address(5, 2));
+
+      DeliveryManifest manifest = trips.poll(2, TimeUnit.SECONDS);
+      assertThat(manifest).isNotNull();
+      assertThat(manifest.getDeliveries()).hasSize(2);
+      assertThat(batcher.trips()).isEqualTo(1);
+      assertThat(batcher.deliveredOrders()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void ordersLeavingTheBatchAreNotDeliveredTwice() throws Exception {
+    try (DeliveryBatcher batcher = new DeliveryBatcher(pancakeService, 3, Duration.ofMinutes(1), trips::add)) {
+      UUID delivered = prepareOrder(new Address(7, 1));
+      prepareOrder(new Address(7, 2));
+      Delivery direct = pancakeService.deliverOrder(delivered);
+      assertThat(direct.getOrder().getId()).isEqualTo(delivered);
+      assertThat(batcher.waitingOrders()).isEqualTo(1);
+
+      batcher.flush();
+      DeliveryManifest manifest = trips.poll(1, TimeUnit.SECONDS);
+      assertThat(manifest).isNotNull();
+      assertThat(manifest.getDeliveries()).hasSize(1);
+      assertThat(manifest.getSkippedOrders()).isEmpty();
+    }
+    assertThat(trips).isEmpty();
+  }
+
+  private UUID prepareOrder(Address address) throws Exception {
+    UUID orderId = pancakeService.startOrder(address);
+    pancakeService.addPancakes(orderId, List.of(List.of()));
+    pancakeService.completeOrder(orderId);
+    pancakeService.prepareOrder(orderId);
+    return orderId;
+  }
+}
@@ -0,0 +1,179 @@
+package org.pancakelab.service.component;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Order;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.KitchenEngine;
+import org.pancakelab.service.KitchenStats;
+import org.pancakelab.service.OrderLifecycleEvent;
+import org.pancakelab.service.OrderLog;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.PreparationQueue;
+import org.pancakelab.service.metrics.ServiceMetrics;
+import org.pancakelab.util.EntityLockManager;
+import org.pancakelab.util.TimeOrderedIdGenerator;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KitchenEngineTest {
+
+  private final PancakeService pancakeService = new PancakeService(new AddressValidator(), new PancakeValidator(),
+      new OrderRepository(), new PancakeRepository(), new OrderLog(), new EntityLockManager<>(),
+      new EntityLockManager<>(), new TimeOrderedIdGenerator(), new PreparationQueue(3), ServiceMetrics.enabled());
+  private final LinkedBlockingQueue<UUID> prepared = new LinkedBlockingQueue<>();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private KitchenEngine kitchen;
+
+  KitchenEngineTest() {
+    pancakeService.addLifecycleListener(event -> {
+      if (event.type() == OrderLifecycleEvent.Type.Prepared) {
+        prepared.add(event.orderId());
+      }
+    });
+  }
+
+  @AfterEach
+  void close() {
+    release.countDown();
+    if (kitchen != null) {
+      kitchen.close();
+    }
+    pancakeService.close();
+  }
+
+  @Test
+  void cooksAnOrdersPancakesInParallelAndPreparesItAfterTheLast() throws Exception {
+    CountDownLatch allOnGriddles = new CountDownLatch(4);
+    kitchen = new KitchenEngine(pancakeService, 4, (orderId, pancake) -> {
+      allOnGriddles.countDown();
+      release.await();
+    });
+    UUID orderId = orderWith(4);
+
+    pancakeService.completeOrder(orderId);
+
+    assertThat(allOnGriddles.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(kitchen.stats().cookingPancakes()).isEqualTo(4);
+    assertThat(pancakeService.findOrderStatus(orderId)).contains(Order.Status.Completed);
+    release.countDown();
+    assertThat(prepared.poll(5, TimeUnit.SECONDS)).isEqualTo(orderId);
+    assertThat(pancakeService.findOrderStatus(orderId)).contains(Order.Status.Prepared);
+    kitchen.close();
+    KitchenStats stats = kitchen.stats();
+    assertThat(stats.cookedPancakes()).isEqualTo(4);
+    assertThat(stats.preparedOrders()).isEqualTo(1);
+    assertThat(stats.ordersInKitchen()).isZero();
+    assertThat(stats.utilisation()).isBetween(0.0, 1.0).isPositive();
+  }
+
+  // Busy griddles don't hold up completeOrder; only a full preparation queue does.
+  @Test
+  void completeOrderWaitsOnlyForThePreparationQueue() throws Exception {
+    kitchen = new KitchenEngine(pancakeService, 1, (orderId, pancake) -> release.await());
+    UUID cooking = orderWith(1);
+    UUID queued = orderWith(1);
+    UUID alsoQueued = orderWith(1);
+    UUID waiting = orderWith(1);
+    pancakeService.completeOrder(cooking);
+    pancakeService.completeOrder(queued);
+    pancakeService.completeOrder(alsoQueued);
+
+    CompletableFuture<UUID> blocked = CompletableFuture.supplyAsync(() -> complete(waiting));
+
+    assertThatThrownBy(() -> blocked.get(200, TimeUnit.MILLISECONDS))
+        .isInstanceOf(TimeoutException.class);
+    KitchenStats stats = kitchen.stats();
+    assertThat(stats.cookingPancakes()).isEqualTo(1);
+    assertThat(stats.queuedPancakes()).isEqualTo(1);
+    release.countDown();
+    assertThat(blocked.get(5, TimeUnit.SECONDS)).isEqualTo(waiting);
+    List<UUID> done = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      done.add(prepared.poll(5, TimeUnit.SECONDS));
+    }
+    assertThat(done).containsExactly(cooking, queued, alsoQueued, waiting);
+  }
+
+  @Test
+  void cancelledOrderLeavesTheKitchenWithoutBeingPrepared() throws Exception {
+    CountDownLatch onGriddle = new CountDownLatch(1);
+    kitchen = new KitchenEngine(pancakeService, 1, (orderId, pancake) -> {
+      onGriddle.countDown();
+      release.await();
+    });
+    UUID orderId = orderWith(3);
+    pancakeService.completeOrder(orderId);
+    assertThat(onGriddle.await(5, TimeUnit.SECONDS)).isTrue();
+
+    pancakeService.cancelOrder(orderId);
+    release.countDown();
+    kitchen.close();
+
+    KitchenStats stats = kitchen.stats();
+    assertThat(stats.abandonedOrders()).isEqualTo(1);
+    assertThat(stats.preparedOrders()).isZero();
+    assertThat(stats.cookedPancakes()).isEqualTo(1);
+    assertThat(prepared).isEmpty();
+  }
+
+  @Test
+  void timedGriddlesPrepareManyOrders() throws Exception {
+    kitchen = new KitchenEngine(pancakeService, 4, KitchenEngine.Griddle.timed(Duration.ofMillis(1)));
+    List<UUID> orders = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      UUID orderId = orderWith(i % 3);
+      pancakeService.completeOrder(orderId);
+      orders.add(orderId);
+    }
+    List<UUID> done = new ArrayList<>();
+    for (int i = 0; i < orders.size(); i++) {
+      done.add(prepared.poll(5, TimeUnit.SECONDS));
+    }
+
+    kitchen.close();
+
+    assertThat(done).containsExactlyInAnyOrderElementsOf(orders);
+    assertThat(kitchen.stats().cookedPancakes()).isEqualTo(19);
+    assertThat(kitchen.stats().preparedOrders()).isEqualTo(20);
+    assertThat(pancakeService.listPreparedOrders()).hasSize(20);
+  }
+
+  @Test
+  void rejectsKitchenWithoutGriddles() {
+    assertThatThrownBy(() -> new KitchenEngine(pancakeService, 0, KitchenEngine.Griddle.timed(Duration.ZERO)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private UUID orderWith(int pancakes) throws OrderUpdateException {
+    UUID orderId = pancakeService.startOrder(new Address(1, 1));
+    for (int i = 0; i < pancakes; i++) {
+      pancakeService.addPancake(orderId);
+    }
+    return orderId;
+  }
+
+  private UUID complete(UUID orderId) {
+    try {
+      return pancakeService.completeOrder(orderId);
+    } catch (OrderUpdateException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package org.pancakelab.service.component;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.OrderExpiry;
+import org.pancakelab.service.OrderLog;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.PreparationQueue;
+import org.pancakelab.service.log.OverflowPolicy;
+import org.pancakelab.service.log.RecentLinesSink;
+import org.pancakelab.service.metrics.ServiceMetrics;
+import org.pancakelab.util.EntityLockManager;
+import org.pancakelab.util.RandomIdGenerator;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderExpiryTest {
+
+  private static final Duration PENDING_TTL = Duration.ofMinutes(30);
+  private static final Duration COMPLETED_TTL = Duration.ofHours(2);
+
+  private final AtomicLong clock = new AtomicLong();
+  private final RecentLinesSink logLines = new RecentLinesSink(16);
+  private final OrderLog orderLog = new OrderLog(logLines, 1024, OverflowPolicy.Block);
+  private final OrderRepository orderRepository = new OrderRepository();
+  private final PancakeRepository pancakeRepository = new PancakeRepository();
+  private final EntityLockManager<UUID> orderLocks = EntityLockManager.perKey();
+  private final EntityLockManager<UUID> pancakeLocks = EntityLockManager.perKey();
+  private final PreparationQueue preparationQueue = new PreparationQueue();
+  private final PancakeService pancakeService = new PancakeService(
+      new AddressValidator(),
+      new PancakeValidator(),
+      orderRepository,
+      pancakeRepository,
+      orderLog,
+      orderLocks,
+      pancakeLocks,
+      new RandomIdGenerator(),
+      preparationQueue,
+      ServiceMetrics.disabled());
+  private final OrderExpiry expiry = new OrderExpiry(pancakeService,
+      Map.of(Order.Status.Pending, PENDING_TTL, Order.Status.Completed, COMPLETED_TTL),
+      Duration.ofMinutes(1), clock::get);
+
+  @AfterEach
+  void close() {
+    expiry.close();
+    pancakeService.close();
+  }
+
+  @Test
+  void abandonedPendingOrderIsDroppedWithItsPancakesAndLocks() throws OrderUpdateException {
+    UUID orderId = pancakeService.startOrder(new Address(5, 7));
+    UUID pancakeId = pancakeService.addPancake(orderId);
+    pancakeService.addIngredient(pancakeId, Pancake.Ingredient.Hazelnuts);
+
+    passTime(PENDING_TTL.minusMinutes(1));
+    assertThat(expiry.expireDue()).isZero();
+    passTime(Duration.ofMinutes(2));
+    assertThat(expiry.expireDue()).isEqualTo(1);
+
+    assertThatThrownBy(() -> pancakeService.viewOrder(orderId)).isInstanceOf(OrderNotFoundException.class);
+    assertThat(pancakeRepository.findAll()).isEmpty();
+    assertThat(orderLocks.size()).isZero();
+    assertThat(pancakeLocks.size()).isZero();
+    assertThat(expiry.expiredOrders()).isEqualTo(1);
+    assertThat(expiry.pendingTimers()).isZero();
+    pancakeService.close();
+    assertThat(logLines.lines()).last().asString()
+        .isEqualTo("Expired abandoned order " + orderId + " with 1 pancakes for building 5, room 7.");
+  }
+
+  @Test
+  void activityPushesTheDeadlineBack() throws OrderUpdateException {
+    UUID orderId = pancakeService.startOrder(new Address(1, 1));
+    passTime(PENDING_TTL.minusMinutes(5));
+    UUID pancakeId = pancakeService.addPancake(orderId);
+    passTime(PENDING_TTL.minusMinutes(5));
+    pancakeService.addIngredient(pancakeId, Pancake.Ingredient.MilkChocolate);
+    passTime(PENDING_TTL.minusMinutes(5));
+
+    assertThat(expiry.expireDue()).isZero();
+    assertThat(pancakeService.viewOrder(orderId)).hasSize(1);
+
+    passTime(Duration.ofMinutes(10));
+    assertThat(expiry.expireDue()).isEqualTo(1);
+  }
+
+  @Test
+  void eachStatusHasItsOwnTtl() throws OrderUpdateException {
+    UUID completed = pancakeService.startOrder(new Address(1, 1));
+    UUID prepared = pancakeService.startOrder(new Address(2, 2));
+    pancakeService.completeOrder(completed);
+    pancakeService.completeOrder(prepared);
+    pancakeService.prepareOrder(prepared);
+
+    passTime(PENDING_TTL.plusMinutes(5));
+    assertThat(expiry.expireDue()).isZero();
+
+    passTime(COMPLETED_TTL);
+    assertThat(expiry.expireDue()).isEqualTo(1);
+    assertThat(pancakeService.findOrderStatus(completed)).isEmpty();
+    assertThat(preparationQueue.size()).isZero();
+
+    // no TTL for prepared orders: they wait for their courier however long it takes
+    assertThat(pancakeService.findOrderStatus(prepared)).contains(Order.Status.Prepared);
+    assertThat(expiry.pendingTimers()).isZero();
+  }
+
+  @Test
+  void finishedOrdersLeaveNoTimerBehind() throws OrderUpdateException {
+    UUID delivered = pancakeService.startOrder(new Address(1, 1));
+    UUID cancelled = pancakeService.startOrder(new Address(1, 2));
+    pancakeService.completeOrder(delivered);
+    pancakeService.prepareOrder(delivered);
+    pancakeService.deliverOrder(delivered);
+    pancakeService.cancelOrder(cancelled);
+
+    assertThat(expiry.pendingTimers()).isZero();
+  }
+
+  @Test
+  void staleTimerIsReArmedForTheCurrentStatus() throws OrderUpdateException {
+    UUID orderId = pancakeService.startOrder(new Address(1, 1));
+    expiry.close();
+    pancakeService.completeOrder(orderId);
+
+    passTime(PENDING_TTL.plusMinutes(1));
+    assertThat(expiry.expireDue()).isEqualTo(1);
+
+    assertThat(expiry.expiredOrders()).isZero();
+    assertThat(pancakeService.findOrderStatus(orderId)).contains(Order.Status.Completed);
+    assertThat(expiry.pendingTimers()).isEqualTo(1);
+  }
+
+  // Stands in for weeks of service: each simulated hour a crowd of disciples starts orders and
+  // walks away. Whatever was kept alive by an abandoned order must be gone again once its TTL
+  // has passed, so the shop's footprint stays flat however many hours go by.
+  @Test
+  void footprintStaysFlatOverALongRunOfAbandonedOrders() throws OrderUpdateException {
+    int hours = 24 * 14;
+    int abandonedPerHour = 200;
+
+    for (int hour = 0; hour < hours; hour++) {
+      for (int i = 0; i < abandonedPerHour; i++) {
+        UUID orderId = pancakeService.startOrder(new Address(i % 100 + 1, hour % 100 + 1));
+        UUID pancakeId = pancakeService.addPancake(orderId);
+        pancakeService.addIngredient(pancakeId, Pancake.Ingredient.WhippedCream);
+        if (i % 10 == 0) {
+          pancakeService.completeOrder(orderId);
+        }
+      }
+      for (int minute = 0; minute < 60; minute++) {
+        passTime(Duration.ofMinutes(1));
+        expiry.expireDue();
+      }
+
+      // nothing older than the longest TTL survives
+      assertThat(orderRepository.findAll().size()).isLessThanOrEqualTo(abandonedPerHour * 3);
+      assertThat(orderLocks.size()).isLessThanOrEqualTo(abandonedPerHour * 3);
+      assertThat(pancakeLocks.size()).isLessThanOrEqualTo(abandonedPerHour * 3);
+      assertThat(expiry.pendingTimers()).isEqualTo(orderRepository.findAll().size());
+    }
+    passTime(COMPLETED_TTL.plusMinutes(1));
+    expiry.expireDue();
+
+    assertThat(expiry.expiredOrders()).isEqualTo((long) hours * abandonedPerHour);
+    assertThat(expiry.failedExpiries()).isZero();
+    assertThat(orderRepository.findAll()).isEmpty();
+    assertThat(pancakeRepository.findAll()).isEmpty();
+    assertThat(orderLocks.size()).isZero();
+    assertThat(pancakeLocks.size()).isZero();
+    assertThat(preparationQueue.size()).isZero();
+  }
+
+  private void passTime(Duration duration) {
+    clock.addAndGet(duration.toNanos());
+  }
+}
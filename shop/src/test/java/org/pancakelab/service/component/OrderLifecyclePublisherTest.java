@@ -0,0 +1,154 @@
+package org.pancakelab.service.component;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.Address;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.OrderLifecycleEvent;
+import org.pancakelab.service.OrderLifecyclePublisher;
+import org.pancakelab.service.OrderLog;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderLifecyclePublisherTest {
+
+  private static final int ORDERS = 500;
+
+  private final PancakeService pancakeService = new PancakeService(
+      new AddressValidator(),
+      new PancakeValidator(),
+      new OrderRepository(),
+      new PancakeRepository(),
+      new OrderLog()
+  );
+
+  @AfterEach
+  void close() {
+    pancakeService.close();
+  }
+
+  @Test
+  void streamsTransitionsInOrder() throws Exception {
+    Recorder recorder = new Recorder(Long.MAX_VALUE);
+    pancakeService.lifecycleEvents().subscribe(recorder);
+    assertThat(recorder.subscribed.await(1, TimeUnit.SECONDS)).isTrue();
+
+    UUID delivered = pancakeService.startOrder(new Address(1, 1));
+    pancakeService.completeOrder(delivered);
+    pancakeService.prepareOrder(delivered);
+    pancakeService.deliverOrder(delivered);
+    UUID cancelled = pancakeService.startOrder(new Address(2, 2));
+    pancakeService.cancelOrder(cancelled);
+
+    List<OrderLifecycleEvent.Type> types = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      OrderLifecycleEvent event = recorder.events.poll(1, TimeUnit.SECONDS);
+      assertThat(event).isNotNull();
+      types.add(event.type());
+    }
+    assertThat(types).containsExactly(
+        OrderLifecycleEvent.Type.Started, OrderLifecycleEvent.Type.Completed, OrderLifecycleEvent.Type.Prepared,
+        OrderLifecycleEvent.Type.Delivered, OrderLifecycleEvent.Type.Started, OrderLifecycleEvent.Type.Cancelled);
+    assertThat(pancakeService.lifecycleEvents()).isSameAs(pancakeService.lifecycleEvents());
+  }
+
+  @Test
+  void stalledSubscriberDoesNotHoldUpOrdersOrOtherSubscribers() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    CountDownLatch unblock = new CountDownLatch(1);
+    try (OrderLifecyclePublisher publisher = new OrderLifecyclePublisher(executor, 8)) {
+      pancakeService.addLifecycleListener(publisher);
+      Recorder stalled = new Recorder(Long.MAX_VALUE) {
+        @Override
+        public void onNext(OrderLifecycleEvent item) {
+          awaitQuietly(unblock);
+        }
+      };
+      Recorder idle = new Recorder(1);
+      Recorder healthy = new Recorder(Long.MAX_VALUE);
+      publisher.subscribe(stalled);
+      publisher.subscribe(idle);
+      publisher.subscribe(healthy);
+      assertThat(stalled.subscribed.await(1, TimeUnit.SECONDS)).isTrue();
+      assertThat(idle.subscribed.await(1, TimeUnit.SECONDS)).isTrue();
+      assertThat(healthy.subscribed.await(1, TimeUnit.SECONDS)).isTrue();
+
+      long start = System.nanoTime();
+      for (int i = 0; i < ORDERS; i++) {
+        UUID orderId = pancakeService.startOrder(new Address(1, 1));
+        pancakeService.completeOrder(orderId);
+        pancakeService.prepareOrder(orderId);
+        pancakeService.deliverOrder(orderId);
+        // keep the healthy subscriber within its small buffer; nobody waits for the other two
+        healthy.awaitEvents(4 * (i + 1));
+      }
+      long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+      assertThat(elapsedMillis).isLessThan(5_000);
+      assertThat(healthy.events).hasSize(4 * ORDERS);
+      assertThat(idle.events).hasSize(1);
+      assertThat(publisher.droppedEvents()).isGreaterThanOrEqualTo(2L * (4 * ORDERS - 8 - 1));
+    } finally {
+      unblock.countDown();
+      executor.shutdown();
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static class Recorder implements Flow.Subscriber<OrderLifecycleEvent> {
+    final LinkedBlockingQueue<OrderLifecycleEvent> events = new LinkedBlockingQueue<>();
+    final CountDownLatch subscribed = new CountDownLatch(1);
+    private final long demand;
+
+    Recorder(long demand) {
+      this.demand = demand;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.request(demand);
+      subscribed.countDown();
+    }
+
+    @Override
+    public void onNext(OrderLifecycleEvent item) {
+      events.add(item);
+    }
+
+    void awaitEvents(int count) throws InterruptedException {
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+      while (events.size() < count && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+    }
+
+    @Override
+    public void onComplete() {
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package org.pancakelab.service.component;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.IncorrectOrderStatusException;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.exception.PancakeNotFoundException;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.OrderLog;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.PreparationQueue;
+import org.pancakelab.service.log.OverflowPolicy;
+import org.pancakelab.service.metrics.ServiceMetrics;
+import org.pancakelab.service.log.RecentLinesSink;
+import org.pancakelab.util.EntityLockManager;
+import org.pancakelab.util.TimeOrderedIdGenerator;
+import org.pancakelab.util.VirtualThreads;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PancakeServiceLoadTest {
+
+  private static final int CLIENTS = 100_000;
+
+  private final OrderRepository orderRepository = new OrderRepository();
+  private final PancakeRepository pancakeRepository = new PancakeRepository();
+  private final OrderLog orderLog = new OrderLog(new RecentLinesSink(16), 1 << 16, OverflowPolicy.Drop);
+
+  private final PancakeService pancakeService = new PancakeService(
+      new AddressValidator(),
+      new PancakeValidator(),
+      orderRepository,
+      pancakeRepository,
+      orderLog,
+      EntityLockManager.striped(1024),
+      EntityLockManager.striped(1024),
+      new TimeOrderedIdGenerator(),
+      new PreparationQueue(),
+      ServiceMetrics.enabled()
+  );
+
+  // Every client gets its own thread only on a Java 21+ runtime. On the Java 17 target the
+  // executor falls back to a platform pool of max(64, 4 x cores) threads, so there this checks
+  // correctness under load rather than 100k concurrent clients. The ops/s figure for the same
+  // pipeline comes from ConcurrentClientsBenchmark in the benchmarks module.
+  @Test
+  void servesOneClientPerThread() throws Exception {
+    List<Future<Integer>> deliveries = new ArrayList<>(CLIENTS);
+    try (ThreadPerTaskExecutor executor = new ThreadPerTaskExecutor()) {
+      for (int i = 0; i < CLIENTS; i++) {
+        int client = i;
+        deliveries.add(executor.service.submit(() -> {
+          UUID orderId = pancakeService.startOrder(new Address(client % 100 + 1, client % 37 + 1));
+          UUID pancakeId = pancakeService.addPancake(orderId);
+          pancakeService.addIngredient(pancakeId, Pancake.Ingredient.values()[client % Pancake.Ingredient.values().length]);
+          pancakeService.completeOrder(orderId);
+          pancakeService.prepareOrder(orderId);
+          return pancakeService.deliverOrder(orderId).getPancakes().size();
+        }));
+      }
+      for (Future<Integer> delivery : deliveries) {
+        assertThat(delivery.get()).isEqualTo(1);
+      }
+    }
+    pancakeService.close();
+
+    assertThat(orderRepository.findAll()).isEmpty();
+    assertThat(pancakeRepository.findAll()).isEmpty();
+  }
+
+  // Only virtual threads can hold this many clients inside the service at the same time: each one
+  // keeps its thread until all of them have started an order.
+  @Test
+  void virtualThreadsHoldEveryClientAtOnce() throws Exception {
+    assumeTrue(VirtualThreads.available(), "needs a Java 21+ runtime");
+    int clients = 10_000;
+    CountDownLatch started = new CountDownLatch(clients);
+    CountDownLatch release = new CountDownLatch(1);
+    List<Future<UUID>> orders = new ArrayList<>(clients);
+    try (ThreadPerTaskExecutor executor = new ThreadPerTaskExecutor()) {
+      for (int i = 0; i < clients; i++) {
+        int client = i;
+        orders.add(executor.service.submit(() -> {
+          UUID orderId = pancakeService.startOrder(new Address(client % 100 + 1, client % 37 + 1));
+          started.countDown();
+          release.await();
+          return pancakeService.cancelOrder(orderId);
+        }));
+      }
+      assertThat(started.await(30, TimeUnit.SECONDS)).isTrue();
+      assertThat(orderRepository.findAll()).hasSize(clients);
+      release.countDown();
+      for (Future<UUID> order : orders) {
+        assertThat(order.get()).isNotNull();
+      }
+    }
+    pancakeService.close();
+
+    assertThat(orderRepository.findAll()).isEmpty();
+  }
+
+  // A client still adding pancakes while the order is completed and delivered either gets its
+  // pancake into the delivery or is turned away; none is left behind in the repository.
+  @Test
+  void pancakesAddedDuringDeliveryAreDeliveredOrRejected() throws Exception {
+    try (ThreadPerTaskExecutor executor = new ThreadPerTaskExecutor()) {
+      for (int i = 0; i < 200; i++) {
+        UUID orderId = pancakeService.startOrder(new Address(1, 1));
+        pancakeService.addPancake(orderId);
+        Future<Integer> added = executor.service.submit(() -> {
+          int count = 0;
+          try {
+            while (true) {
+              pancakeService.addPancake(orderId);
+              count++;
+            }
+          } catch (OrderUpdateException e) {
+            return count;
+          }
+        });
+        pancakeService.completeOrder(orderId);
+        pancakeService.prepareOrder(orderId);
+        int delivered = pancakeService.deliverOrder(orderId).getPancakes().size();
+
+        assertThat(added.get()).isEqualTo(delivered - 1);
+      }
+    }
+    pancakeService.close();
+
+    assertThat(pancakeRepository.findAll()).isEmpty();
+  }
+
+  @Test
+  void recipesAreFixedOnceTheOrderIsCompleted() throws Exception {
+    UUID orderId = pancakeService.startOrder(new Address(1, 1));
+    UUID pancakeId = pancakeService.addPancake(orderId);
+    pancakeService.completeOrder(orderId);
+
+    assertThatThrownBy(() -> pancakeService.addIngredient(pancakeId, Pancake.Ingredient.Hazelnuts))
+        .isInstanceOf(IncorrectOrderStatusException.class);
+    pancakeService.prepareOrder(orderId);
+    assertThat(pancakeService.deliverOrder(orderId).getPancakes()).containsExactly("plain pancake");
+    assertThatThrownBy(() -> pancakeService.addIngredient(pancakeId, Pancake.Ingredient.Hazelnuts))
+        .isInstanceOf(PancakeNotFoundException.class);
+    pancakeService.close();
+
+    assertThat(pancakeRepository.findAll()).isEmpty();
+  }
+
+  @Test
+  void ingredientsAddedDuringDeliveryLeaveNoPancakeBehind() throws Exception {
+    try (ThreadPerTaskExecutor executor = new ThreadPerTaskExecutor()) {
+      for (int i = 0; i < 2000; i++) {
+        UUID orderId = pancakeService.startOrder(new Address(1, 1));
+        UUID pancakeId = pancakeService.addPancake(orderId);
+        Future<?> added = executor.service.submit(() -> {
+          try {
+            pancakeService.addIngredient(pancakeId, Pancake.Ingredient.Hazelnuts);
+          } catch (OrderUpdateException e) {
+            // too late: the order was already completed or delivered
+          }
+        });
+        pancakeService.completeOrder(orderId);
+        pancakeService.prepareOrder(orderId);
+        pancakeService.deliverOrder(orderId);
+        added.get();
+      }
+    }
+    pancakeService.close();
+
+    assertThat(orderRepository.findAll()).isEmpty();
+    assertThat(pancakeRepository.findAll()).isEmpty();
+  }
+
+  private static class ThreadPerTaskExecutor implements AutoCloseable {
+    private final ExecutorService service = VirtualThreads.newThreadPerTaskExecutor();
+
+    @Override
+    public void close() {
+      service.shutdown();
+    }
+  }
+}
@@ -1,12 +1,11 @@
 package org.pancakelab.service.component;
 
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestMethodOrder;
-import org.pancakelab.exception.OrderNotFoundException;
 import org.pancakelab.exception.OrderUpdateException;
-import org.pancakelab.exception.PancakeNotFoundException;
 import org.pancakelab.model.Address;
 import org.pancakelab.model.Delivery;
 import org.pancakelab.model.Order;
@@ -43,6 +42,11 @@ class PancakeServiceTest {
   private UUID pancake1Id;
   private UUID pancake2Id;
 
+  @AfterAll
+  void close() {
+    pancakeService.close();
+  }
+
   @Test
   @org.junit.jupiter.api.Order(1)
   void newOrder() {
@@ -61,7 +65,7 @@ class PancakeServiceTest {
 
   @Test
   @org.junit.jupiter.api.Order(2)
-  void addPancakes() throws OrderNotFoundException, PancakeNotFoundException {
+  void addPancakes() throws OrderUpdateException {
     pancake1Id = pancakeService.addPancake(orderId);
     pancake2Id = pancakeService.addPancake(orderId);
 
@@ -83,6 +87,23 @@ class PancakeServiceTest {
 
   @Test
   @org.junit.jupiter.api.Order(3)
+  void addPancakesInBulk() throws OrderUpdateException {
+    UUID otherOrderId = pancakeService.startOrder(new Address(2, 3));
+
+    List<UUID> pancakeIds = pancakeService.addPancakes(otherOrderId, List.of(
+        List.of(Pancake.Ingredient.Hazelnuts),
+        List.of()));
+
+    assertThat(pancakeIds).hasSize(2);
+    assertThat(pancakeService.viewOrder(otherOrderId))
+        .containsExactlyInAnyOrder("Pancake with 1 ingredients: hazelnuts", "plain pancake");
+
+    pancakeService.cancelOrder(otherOrderId);
+    assertThat(pancakeRepository.findAll()).hasSize(2);
+  }
+
+  @Test
+  @org.junit.jupiter.api.Order(4)
   void completeOrder() throws OrderUpdateException {
     pancakeService.completeOrder(orderId);
 
@@ -93,7 +114,7 @@ class PancakeServiceTest {
   }
 
   @Test
-  @org.junit.jupiter.api.Order(4)
+  @org.junit.jupiter.api.Order(5)
   void prepareOrder() throws OrderUpdateException {
     pancakeService.prepareOrder(orderId);
 
@@ -104,7 +125,7 @@ class PancakeServiceTest {
   }
 
   @Test
-  @org.junit.jupiter.api.Order(5)
+  @org.junit.jupiter.api.Order(6)
   void deliverOrder() throws OrderUpdateException {
     Delivery delivery = pancakeService.deliverOrder(orderId);
 
@@ -115,7 +136,7 @@ class PancakeServiceTest {
         .hasSize(0);
 
     assertThat(delivery.getOrder().getStatus())
-        .isEqualTo(Order.Status.Prepared);
+        .isEqualTo(Order.Status.Delivered);
 
     assertThat(delivery.getOrder().getAddress())
         .isEqualTo(new Address(1, 1));
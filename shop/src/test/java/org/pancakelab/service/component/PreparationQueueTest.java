@@ -0,0 +1,134 @@
+package org.pancakelab.service.component;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Order;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.OrderLog;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.PreparationQueue;
+import org.pancakelab.service.metrics.ServiceMetrics;
+import org.pancakelab.util.EntityLockManager;
+import org.pancakelab.util.RandomIdGenerator;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PreparationQueueTest {
+
+  private static final int ORDERS = 2_000;
+  private static final int CHEFS = 4;
+
+  private final OrderRepository orderRepository = new OrderRepository();
+  private final PreparationQueue preparationQueue = new PreparationQueue(8);
+  private final PancakeService pancakeService = new PancakeService(
+      new AddressValidator(),
+      new PancakeValidator(),
+      orderRepository,
+      new PancakeRepository(),
+      new OrderLog(),
+      new EntityLockManager<>(),
+      new EntityLockManager<>(),
+      new RandomIdGenerator(),
+      preparationQueue,
+      ServiceMetrics.disabled()
+  );
+
+  @AfterEach
+  void close() {
+    pancakeService.close();
+  }
+
+  @Test
+  void handsEveryOrderToExactlyOneChef() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(CHEFS + 2);
+    ConcurrentLinkedQueue<UUID> claimed = new ConcurrentLinkedQueue<>();
+    List<Future<?>> chefs = new ArrayList<>();
+    for (int i = 0; i < CHEFS; i++) {
+      chefs.add(executor.submit(() -> {
+        Optional<UUID> next;
+        while ((next = pancakeService.takeNextOrderToPrepare(Duration.ofMillis(500))).isPresent()) {
+          claimed.add(next.get());
+        }
+        return null;
+      }));
+    }
+    List<UUID> completed = new ArrayList<>();
+    for (int i = 0; i < ORDERS; i++) {
+      UUID orderId = pancakeService.startOrder(new Address(1, 1));
+      pancakeService.completeOrder(orderId);
+      completed.add(orderId);
+      assertThat(preparationQueue.size()).isLessThanOrEqualTo(preparationQueue.capacity());
+    }
+    for (Future<?> chef : chefs) {
+      chef.get();
+    }
+    executor.shutdown();
+
+    assertThat(claimed).hasSize(ORDERS).containsExactlyInAnyOrderElementsOf(completed);
+    assertThat(pancakeService.listPreparedOrders()).hasSize(ORDERS);
+    assertThat(preparationQueue.size()).isZero();
+  }
+
+  @Test
+  void completeOrderWaitsForAFreeSlot() throws Exception {
+    for (int i = 0; i < preparationQueue.capacity(); i++) {
+      pancakeService.completeOrder(pancakeService.startOrder(new Address(1, 1)));
+    }
+    UUID blockedOrderId = pancakeService.startOrder(new Address(2, 2));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<UUID> blocked = executor.submit(() -> pancakeService.completeOrder(blockedOrderId));
+
+    Thread.sleep(50);
+    assertThat(blocked).isNotDone();
+    UUID first = pancakeService.takeNextOrderToPrepare();
+
+    assertThat(blocked.get(1, TimeUnit.SECONDS)).isEqualTo(blockedOrderId);
+    assertThat(orderRepository.find(first)).map(Order::getStatus).contains(Order.Status.Prepared);
+    executor.shutdown();
+  }
+
+  @Test
+  void ordersLeavingByOtherRoutesFreeTheirSlots() throws Exception {
+    UUID prepared = pancakeService.startOrder(new Address(1, 1));
+    UUID cancelled = pancakeService.startOrder(new Address(1, 1));
+    pancakeService.completeOrder(prepared);
+    pancakeService.completeOrder(cancelled);
+
+    pancakeService.prepareOrder(prepared);
+    pancakeService.cancelOrder(cancelled);
+
+    assertThat(preparationQueue.size()).isZero();
+    assertThat(pancakeService.takeNextOrderToPrepare(Duration.ofMillis(10))).isEmpty();
+  }
+
+  @Test
+  void countsOrdersCompletedBeforeStartup() throws Exception {
+    Order recovered = new Order(UUID.randomUUID(), new Address(3, 3), Order.Status.Completed);
+    OrderRepository repository = new OrderRepository();
+    repository.save(recovered);
+    PreparationQueue queue = new PreparationQueue(4);
+    PancakeService restarted = new PancakeService(new AddressValidator(), new PancakeValidator(), repository,
+        new PancakeRepository(), new OrderLog(), new EntityLockManager<>(), new EntityLockManager<>(),
+        new RandomIdGenerator(), queue, ServiceMetrics.disabled());
+
+    assertThat(queue.size()).isEqualTo(1);
+    assertThat(restarted.takeNextOrderToPrepare()).isEqualTo(recovered.getId());
+    assertThat(queue.size()).isZero();
+    restarted.close();
+  }
+}
@@ -0,0 +1,102 @@
+package org.pancakelab.service.component;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.IncorrectOrderStatusException;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Delivery;
+import org.pancakelab.model.Order;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.OrderLog;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.Result;
+import org.pancakelab.service.metrics.Outcome;
+import org.pancakelab.service.metrics.ServiceOperation;
+import org.pancakelab.validators.AddressValidator;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class ResultApiTest {
+
+  private final PancakeService pancakeService = new PancakeService(new AddressValidator(), new PancakeValidator(),
+      new OrderRepository(), new PancakeRepository(), new OrderLog());
+
+  @AfterEach
+  void close() {
+    pancakeService.close();
+  }
+
+  @Test
+  void successfulCallsCarryTheirValue() throws OrderUpdateException {
+    UUID orderId = pancakeService.startOrder(new Address(2, 3));
+    pancakeService.addPancake(orderId);
+
+    assertThat(pancakeService.tryViewOrder(orderId).value()).containsExactly("plain pancake");
+    assertThat(pancakeService.tryCompleteOrder(orderId).value()).isEqualTo(orderId);
+    assertThat(pancakeService.tryPrepareOrder(orderId).value()).isEqualTo(orderId);
+    Result<Delivery> delivery = pancakeService.tryDeliverOrder(orderId);
+
+    assertThat(delivery.isSuccess()).isTrue();
+    assertThat(delivery.outcome()).isEqualTo(Outcome.Success);
+    assertThat(delivery.value().getOrder().getId()).isEqualTo(orderId);
+    assertThat(delivery.id()).isNull();
+  }
+
+  @Test
+  void missesReportTheOrderAndStatusesInsteadOfThrowing() {
+    UUID orderId = pancakeService.startOrder(new Address(2, 3));
+    UUID unknown = UUID.randomUUID();
+
+    Result<UUID> wrongStatus = pancakeService.tryPrepareOrder(orderId);
+    assertThat(wrongStatus.isSuccess()).isFalse();
+    assertThat(wrongStatus.outcome()).isEqualTo(Outcome.IncorrectOrderStatus);
+    assertThat(wrongStatus.id()).isEqualTo(orderId);
+    assertThat(wrongStatus.expectedStatus()).isEqualTo(Order.Status.Completed);
+    assertThat(wrongStatus.actualStatus()).isEqualTo(Order.Status.Pending);
+    assertThatThrownBy(wrongStatus::value).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(wrongStatus::orElseThrow)
+        .isInstanceOf(IncorrectOrderStatusException.class)
+        .hasMessage("Order " + orderId + " was expected to be in status: Completed but was in status: Pending");
+
+    Result<List<String>> missing = pancakeService.tryViewOrder(unknown);
+    assertThat(missing.outcome()).isEqualTo(Outcome.OrderNotFound);
+    assertThat(missing.id()).isEqualTo(unknown);
+    assertThat(pancakeService.tryDeliverOrder(unknown).outcome()).isEqualTo(Outcome.OrderNotFound);
+    assertThat(pancakeService.tryCompleteOrder(unknown).map(UUID::toString).outcome()).isEqualTo(Outcome.OrderNotFound);
+    assertThatThrownBy(() -> pancakeService.deliverOrder(unknown))
+        .isInstanceOf(OrderNotFoundException.class)
+        .hasMessage("Order with id: " + unknown + " not found");
+  }
+
+  @Test
+  void failedCompletionGivesBackTheKitchenSlot() throws OrderUpdateException {
+    UUID orderId = pancakeService.startOrder(new Address(2, 3));
+    pancakeService.completeOrder(orderId);
+
+    assertThat(pancakeService.tryCompleteOrder(orderId).outcome()).isEqualTo(Outcome.IncorrectOrderStatus);
+    assertThat(pancakeService.tryCompleteOrder(UUID.randomUUID()).outcome()).isEqualTo(Outcome.OrderNotFound);
+    assertThat(pancakeService.listCompletedOrders()).containsExactly(orderId);
+    assertThat(pancakeService.tryPrepareOrder(orderId).isSuccess()).isTrue();
+  }
+
+  @Test
+  void bothApisRecordTheSameOutcomes() {
+    UUID orderId = pancakeService.startOrder(new Address(2, 3));
+
+    pancakeService.tryPrepareOrder(orderId);
+    assertThatThrownBy(() -> pancakeService.prepareOrder(orderId)).isInstanceOf(IncorrectOrderStatusException.class);
+    pancakeService.tryPrepareOrder(UUID.randomUUID());
+
+    assertThat(pancakeService.metrics().get(ServiceOperation.PrepareOrder).outcomes())
+        .containsOnly(entry(Outcome.IncorrectOrderStatus, 2L), entry(Outcome.OrderNotFound, 1L));
+  }
+}
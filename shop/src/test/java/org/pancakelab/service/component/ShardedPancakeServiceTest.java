@@ -0,0 +1,168 @@
+package org.pancakelab.service.component;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.IncorrectOrderStatusException;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.exception.OrderUpdateException;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Delivery;
+import org.pancakelab.model.DeliveryManifest;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.service.OrderLifecycleEvent;
+import org.pancakelab.service.OrderLog;
+import org.pancakelab.service.ShardedPancakeService;
+import org.pancakelab.util.ShardTaggingIdGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardedPancakeServiceTest {
+
+  private final ShardedPancakeService pancakeService = new ShardedPancakeService(4);
+
+  @AfterEach
+  void close() {
+    pancakeService.close();
+  }
+
+  @Test
+  void routesOrdersByBuilding() throws OrderUpdateException {
+    for (int building = 1; building <= 8; building++) {
+      UUID orderId = pancakeService.startOrder(new Address(building, 1));
+      assertThat(ShardTaggingIdGenerator.shardOf(orderId, 4)).isEqualTo(building % 4);
+    }
+  }
+
+  @Test
+  void runsAnOrderThroughItsShard() throws OrderUpdateException {
+    UUID orderId = pancakeService.startOrder(new Address(7, 12));
+    UUID pancakeId = pancakeService.addPancake(orderId);
+    pancakeService.addIngredient(pancakeId, Pancake.Ingredient.MilkChocolate);
+    pancakeService.addPancakes(orderId, List.of(List.of(Pancake.Ingredient.Hazelnuts)));
+
+    assertThat(ShardTaggingIdGenerator.shardOf(pancakeId, 4)).isEqualTo(3);
+    assertThat(pancakeService.viewOrder(orderId)).containsExactlyInAnyOrder(
+        "Pancake with 1 ingredients: milk chocolate", "Pancake with 1 ingredients: hazelnuts");
+
+    pancakeService.completeOrder(orderId);
+    assertThat(pancakeService.listCompletedOrders()).containsExactly(orderId);
+    pancakeService.prepareOrder(orderId);
+    assertThat(pancakeService.listPreparedOrders()).containsExactly(orderId);
+
+    Delivery delivery = pancakeService.deliverOrder(orderId);
+    assertThat(delivery.getPancakes()).hasSize(2);
+    assertThatThrownBy(() -> pancakeService.viewOrder(orderId)).isInstanceOf(OrderNotFoundException.class);
+  }
+
+  @Test
+  void passesShardFailuresBackToTheCaller() throws OrderUpdateException {
+    UUID orderId = pancakeService.startOrder(new Address(2, 2));
+
+    assertThatThrownBy(() -> pancakeService.prepareOrder(orderId))
+        .isInstanceOf(IncorrectOrderStatusException.class);
+    assertThatThrownBy(() -> pancakeService.completeOrder(UUID.randomUUID()))
+        .isInstanceOf(OrderNotFoundException.class);
+    assertThatThrownBy(() -> pancakeService.startOrder(new Address(0, 1)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void mergesDeliveriesFromAllShards() throws OrderUpdateException {
+    List<UUID> orderIds = new ArrayList<>();
+    for (int building = 8; building >= 1; building--) {
+      UUID orderId = pancakeService.startOrder(new Address(building, 1));
+      pancakeService.addPancake(orderId);
+      pancakeService.completeOrder(orderId);
+      pancakeService.prepareOrder(orderId);
+      orderIds.add(orderId);
+    }
+    UUID pending = pancakeService.startOrder(new Address(9, 1));
+    orderIds.add(pending);
+
+    assertThat(pancakeService.listPreparedOrders()).containsExactlyInAnyOrderElementsOf(orderIds.subList(0, 8));
+    DeliveryManifest manifest = pancakeService.deliverOrders(orderIds);
+
+    assertThat(manifest.getDeliveries())
+        .extracting(d -> d.getOrder().getAddress().buildingNumber())
+        .containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+    assertThat(manifest.getSkippedOrders()).containsExactly(pending);
+    assertThat(pancakeService.listPreparedOrders()).isEmpty();
+  }
+
+  @Test
+  void listenersHearEveryShard() throws OrderUpdateException {
+    ConcurrentLinkedQueue<OrderLifecycleEvent> events = new ConcurrentLinkedQueue<>();
+    pancakeService.addLifecycleListener(events::add);
+
+    for (int building = 1; building <= 4; building++) {
+      pancakeService.startOrder(new Address(building, 1));
+    }
+
+    assertThat(events).extracting(e -> e.address().buildingNumber()).containsExactlyInAnyOrder(1, 2, 3, 4);
+  }
+
+  @Test
+  void fullShardKitchenHoldsBackTheCompleterButNotTheShard() throws Exception {
+    ShardedPancakeService service = new ShardedPancakeService(2, 2, shard -> new OrderLog());
+    ExecutorService client = Executors.newSingleThreadExecutor();
+    try {
+      UUID first = service.startOrder(new Address(2, 1));
+      UUID second = service.startOrder(new Address(4, 1));
+      service.completeOrder(first);
+
+      Future<UUID> waiting = client.submit(() -> service.completeOrder(second));
+      assertThatThrownBy(() -> waiting.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+      service.addPancake(second);
+      service.prepareOrder(first);
+
+      assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo(second);
+      assertThat(service.listCompletedOrders()).containsExactly(second);
+    } finally {
+      client.shutdown();
+      service.close();
+    }
+  }
+
+  @Test
+  void rejectsLessKitchenCapacityThanShards() {
+    assertThatThrownBy(() -> new ShardedPancakeService(4, 3, shard -> new OrderLog()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void concurrentClientsKeepShardsConsistent() throws Exception {
+    ExecutorService clients = Executors.newFixedThreadPool(16);
+    List<Future<UUID>> futures = new ArrayList<>();
+    for (int i = 0; i < 800; i++) {
+      int n = i;
+      futures.add(clients.submit(() -> {
+        UUID orderId = pancakeService.startOrder(new Address(n % 100 + 1, 1));
+        UUID pancakeId = pancakeService.addPancake(orderId);
+        pancakeService.addIngredient(pancakeId, Pancake.Ingredient.WhippedCream);
+        if (n % 4 == 0) {
+          pancakeService.cancelOrder(orderId);
+        } else {
+          pancakeService.completeOrder(orderId);
+        }
+        return orderId;
+      }));
+    }
+    for (Future<UUID> future : futures) {
+      future.get();
+    }
+    clients.shutdown();
+
+    assertThat(pancakeService.listCompletedOrders()).hasSize(600).doesNotHaveDuplicates();
+  }
+}
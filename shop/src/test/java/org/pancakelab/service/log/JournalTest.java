@@ -0,0 +1,156 @@
+package org.pancakelab.service.log;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.service.OrderLog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.tuple;
+
+class JournalTest {
+
+  @TempDir
+  Path directory;
+
+  private final Order order = new Order(new Address(3, 42));
+  private final Pancake pancake = new Pancake(order.getId());
+
+  @Test
+  void replaysWrittenRecords() {
+    OrderLog orderLog = new OrderLog(new JournalSink(directory), 16, OverflowPolicy.Block);
+    long before = System.currentTimeMillis();
+
+    orderLog.logAddPancake(order, pancake, 0);
+    orderLog.logAddIngredient(pancake, Pancake.Ingredient.WhippedCream);
+    orderLog.logDeliverOrder(order, 1);
+    orderLog.close();
+
+    List<JournalRecord> records = new ArrayList<>();
+    assertThat(new JournalReader(directory).replay(records::add)).isEqualTo(3);
+    assertThat(records)
+        .extracting(JournalRecord::operation, JournalRecord::orderId, JournalRecord::pancakeId,
+            JournalRecord::ingredient, JournalRecord::pancakeCount, JournalRecord::buildingNumber, JournalRecord::roomNumber)
+        .containsExactly(
+            tuple(OrderEvent.Operation.AddPancake, order.getId(), pancake.getId(), null, 0, 3, 42),
+            tuple(OrderEvent.Operation.AddIngredient, order.getId(), pancake.getId(), Pancake.Ingredient.WhippedCream, 0, 0, 0),
+            tuple(OrderEvent.Operation.DeliverOrder, order.getId(), null, null, 1, 3, 42));
+    assertThat(records).allSatisfy(r -> assertThat(r.timestamp()).isGreaterThanOrEqualTo(before));
+  }
+
+  @Test
+  void rollsOverToNewSegments() throws IOException {
+    OrderLog orderLog = new OrderLog(new JournalSink(directory, 10, 4, Duration.ofSeconds(1)), 64, OverflowPolicy.Block);
+    for (int i = 0; i < 25; i++) {
+      orderLog.logAddPancake(order, pancake, i);
+    }
+    orderLog.close();
+
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files).hasSize(3);
+    }
+    List<Integer> counts = new ArrayList<>();
+    new JournalReader(directory).replay(r -> counts.add(r.pancakeCount()));
+    assertThat(counts).hasSize(25).isSorted();
+  }
+
+  @Test
+  void reopenedJournalAppendsAfterExistingRecords() {
+    OrderLog first = new OrderLog(new JournalSink(directory, 10, 1, Duration.ZERO), 16, OverflowPolicy.Block);
+    first.logCancelOrder(order, 1);
+    first.logCancelOrder(order, 2);
+    first.close();
+
+    OrderLog second = new OrderLog(new JournalSink(directory, 10, 1, Duration.ZERO), 16, OverflowPolicy.Block);
+    second.logCancelOrder(order, 3);
+    second.close();
+
+    List<Integer> counts = new ArrayList<>();
+    new JournalReader(directory).replay(r -> counts.add(r.pancakeCount()));
+    assertThat(counts).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  void bulkAddIsOneRecordExpandedOnReplay() {
+    OrderLog orderLog = new OrderLog(new JournalSink(directory), 16, OverflowPolicy.Block);
+    Pancake first = new Pancake(order.getId())
+        .addIngredient(Pancake.Ingredient.DarkChocolate)
+        .addIngredient(Pancake.Ingredient.Hazelnuts);
+    Pancake second = new Pancake(order.getId());
+    Pancake third = new Pancake(order.getId()).addIngredient(Pancake.Ingredient.WhippedCream);
+
+    orderLog.logAddPancakes(order, List.of(first, second, third), 1);
+    orderLog.logDeliverOrder(order, 4);
+    orderLog.close();
+
+    List<JournalRecord> records = new ArrayList<>();
+    assertThat(new JournalReader(directory).replay(records::add)).isEqualTo(7);
+    assertThat(records)
+        .extracting(JournalRecord::operation, JournalRecord::pancakeId, JournalRecord::ingredient,
+            JournalRecord::pancakeCount, JournalRecord::buildingNumber)
+        .containsExactly(
+            tuple(OrderEvent.Operation.AddPancake, first.getId(), null, 1, 3),
+            tuple(OrderEvent.Operation.AddIngredient, first.getId(), Pancake.Ingredient.DarkChocolate, 0, 0),
+            tuple(OrderEvent.Operation.AddIngredient, first.getId(), Pancake.Ingredient.Hazelnuts, 0, 0),
+            tuple(OrderEvent.Operation.AddPancake, second.getId(), null, 2, 3),
+            tuple(OrderEvent.Operation.AddPancake, third.getId(), null, 3, 3),
+            tuple(OrderEvent.Operation.AddIngredient, third.getId(), Pancake.Ingredient.WhippedCream, 0, 0),
+            tuple(OrderEvent.Operation.DeliverOrder, null, null, 4, 3));
+  }
+
+  @Test
+  void bulkAddLargerThanASegmentIsSplitAcrossSegments() throws IOException {
+    OrderLog orderLog = new OrderLog(new JournalSink(directory, 4, 1, Duration.ZERO), 16, OverflowPolicy.Block);
+    List<Pancake> pancakes = new ArrayList<>();
+    for (int i = 0; i < 15; i++) {
+      pancakes.add(new Pancake(order.getId()));
+    }
+
+    orderLog.logCancelOrder(order, 0);
+    orderLog.logAddPancakes(order, pancakes, 0);
+    orderLog.close();
+
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files).hasSize(3);
+    }
+    List<JournalRecord> records = new ArrayList<>();
+    new JournalReader(directory).replay(records::add);
+    List<JournalRecord> added = records.subList(1, records.size());
+    assertThat(added).extracting(JournalRecord::pancakeId)
+        .containsExactlyElementsOf(pancakes.stream().map(Pancake::getId).toList());
+    assertThat(added).extracting(JournalRecord::pancakeCount).containsExactly(
+        0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14);
+  }
+
+  @Test
+  void reopenedJournalAppendsAfterABulkAdd() {
+    OrderLog first = new OrderLog(new JournalSink(directory, 10, 1, Duration.ZERO), 16, OverflowPolicy.Block);
+    first.logAddPancakes(order, List.of(pancake, new Pancake(order.getId()), new Pancake(order.getId())), 0);
+    first.close();
+
+    OrderLog second = new OrderLog(new JournalSink(directory, 10, 1, Duration.ZERO), 16, OverflowPolicy.Block);
+    second.logCancelOrder(order, 3);
+    second.close();
+
+    List<OrderEvent.Operation> operations = new ArrayList<>();
+    new JournalReader(directory).replay(r -> operations.add(r.operation()));
+    assertThat(operations).containsExactly(OrderEvent.Operation.AddPancake, OrderEvent.Operation.AddPancake,
+        OrderEvent.Operation.AddPancake, OrderEvent.Operation.CancelOrder);
+  }
+
+  @Test
+  void emptyDirectoryReplaysNothing() {
+    assertThat(new JournalReader(directory.resolve("missing")).replay(r -> {
+    })).isZero();
+  }
+}
@@ -0,0 +1,209 @@
+package org.pancakelab.service.log;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.PackedIngredients;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.service.OrderLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderLogTest {
+
+  private final Order order = new Order(new Address(7, 12));
+  private final Pancake pancake = new Pancake(order.getId());
+
+  @Test
+  void formatsEventsOnTheWriterThread() {
+    RecentLinesSink sink = new RecentLinesSink(10);
+    OrderLog orderLog = new OrderLog(sink, 16, OverflowPolicy.Block);
+
+    orderLog.logAddPancake(order, pancake, 0);
+    orderLog.logRemovePancakes(order, pancake, 1);
+    orderLog.logAddIngredient(pancake, Pancake.Ingredient.Hazelnuts);
+    orderLog.logCancelOrder(order, 0);
+    orderLog.logDeliverOrder(order, 2);
+    orderLog.close();
+
+    assertThat(sink.lines()).containsExactly(
+        "Added pancake with description 'plain pancake' to order " + order.getId() + " containing 0 pancakes, for building 7, room 12.",
+        "Removed pancake with description 'plain pancake' from order " + order.getId() + " now containing 1 pancakes, for building 7, room 12.",
+        "Added hazelnuts to pancake " + pancake.getId() + " in order " + order.getId() + ".",
+        "Cancelled order " + order.getId() + " with 0 pancakes for building 7, room 12.",
+        "Order " + order.getId() + " with 2 pancakes for building 7, room 12 out for delivery."
+    );
+  }
+
+  @Test
+  void recentLinesSinkIsBounded() {
+    RecentLinesSink sink = new RecentLinesSink(3);
+    OrderLog orderLog = new OrderLog(sink, 16, OverflowPolicy.Block);
+
+    for (int i = 0; i < 100; i++) {
+      orderLog.logAddPancake(order, pancake, i);
+    }
+    orderLog.close();
+
+    assertThat(sink.lines())
+        .hasSize(3)
+        .last().asString().contains("containing 99 pancakes");
+  }
+
+  @Test
+  void blockPolicyKeepsEveryEventFromConcurrentProducers() throws Exception {
+    CountingSink sink = new CountingSink();
+    OrderLog orderLog = new OrderLog(sink, 64, OverflowPolicy.Block);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          orderLog.logAddPancake(order, pancake, i);
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+    orderLog.close();
+
+    assertThat(sink.events).isEqualTo(80_000);
+    assertThat(sink.flushes).isPositive().isLessThan(80_000);
+    assertThat(orderLog.droppedEvents()).isZero();
+  }
+
+  @Test
+  void dropPolicyNeverBlocksTheCaller() throws Exception {
+    StalledSink sink = new StalledSink();
+    OrderLog orderLog = new OrderLog(sink, 8, OverflowPolicy.Drop);
+
+    orderLog.logAddPancake(order, pancake, 0);
+    assertThat(sink.entered.await(5, TimeUnit.SECONDS)).isTrue();
+    for (int i = 0; i < 100; i++) {
+      orderLog.logAddPancake(order, pancake, i);
+    }
+
+    // the event stuck in the sink keeps its slot until the batch completes
+    assertThat(orderLog.droppedEvents()).isEqualTo(100 - 7);
+    sink.release.countDown();
+    orderLog.close();
+    assertThat(sink.events).isEqualTo(1 + 7);
+  }
+
+  @Test
+  void samplePolicyKeepsOneInRateOnceHalfFull() throws Exception {
+    StalledSink sink = new StalledSink();
+    OrderLog orderLog = new OrderLog(sink, 64, OverflowPolicy.Sample);
+
+    orderLog.logAddPancake(order, pancake, 0);
+    assertThat(sink.entered.await(5, TimeUnit.SECONDS)).isTrue();
+    for (int i = 0; i < 31 + 10 * OrderEventWriter.SAMPLE_RATE; i++) {
+      orderLog.logAddPancake(order, pancake, i);
+    }
+
+    assertThat(orderLog.droppedEvents()).isEqualTo(10 * (OrderEventWriter.SAMPLE_RATE - 1));
+    sink.release.countDown();
+    orderLog.close();
+    assertThat(sink.events).isEqualTo(1 + 31 + 10);
+  }
+
+  @Test
+  void eventsCarryOrderDetails() {
+    List<String> seen = new ArrayList<>();
+    OrderLog orderLog = new OrderLog(event -> seen.add(event.getOperation() + " " + event.getOrderId() + " "
+        + event.getPancakeCount() + " " + event.getBuildingNumber() + "/" + event.getRoomNumber()), 16, OverflowPolicy.Block);
+
+    orderLog.logCancelOrder(order, 3);
+    orderLog.close();
+
+    assertThat(seen).containsExactly("CancelOrder " + order.getId() + " 3 7/12");
+  }
+
+  @Test
+  void bulkAddIsLoggedAsOneEvent() {
+    List<String> seen = new ArrayList<>();
+    RecentLinesSink lines = new RecentLinesSink(10);
+    OrderLog orderLog = new OrderLog(event -> {
+      seen.add(event.getOperation() + " " + event.getQuantity() + " " + event.getPancakeCount() + " "
+          + event.getPancakeId(0) + " " + event.getRecipe(0) + " " + event.getPancakeId(1) + " " + event.getRecipe(1));
+      lines.write(event);
+    }, 16, OverflowPolicy.Block);
+    Pancake first = new Pancake(order.getId()).addIngredient(Pancake.Ingredient.DarkChocolate);
+    Pancake second = new Pancake(order.getId());
+
+    orderLog.logAddPancakes(order, List.of(first, second), 2);
+    orderLog.logAddPancakes(order, List.of(), 4);
+    first.addIngredient(Pancake.Ingredient.Hazelnuts);
+    orderLog.close();
+
+    assertThat(seen).containsExactly("AddPancakes 2 2 " + first.getId() + " "
+        + PackedIngredients.add(PackedIngredients.EMPTY, Pancake.Ingredient.DarkChocolate) + " " + second.getId() + " 0");
+    assertThat(lines.lines()).containsExactly(
+        "Added 2 pancakes to order " + order.getId() + " containing 2 pancakes, for building 7, room 12.");
+  }
+
+  @Test
+  void idleWriterWakesUpForTheNextEvent() throws Exception {
+    LinkedBlockingQueue<OrderEvent.Operation> written = new LinkedBlockingQueue<>();
+    OrderLog orderLog = new OrderLog(event -> written.add(event.getOperation()), 16, OverflowPolicy.Block);
+
+    orderLog.logCancelOrder(order, 0);
+    assertThat(written.poll(5, TimeUnit.SECONDS)).isEqualTo(OrderEvent.Operation.CancelOrder);
+    Thread.sleep(50);
+    orderLog.logDeliverOrder(order, 1);
+
+    assertThat(written.poll(5, TimeUnit.SECONDS)).isEqualTo(OrderEvent.Operation.DeliverOrder);
+    orderLog.close();
+    orderLog.close();
+  }
+
+  @Test
+  void rejectsCapacityThatIsNotAPowerOfTwo() {
+    assertThatThrownBy(() -> new OrderLog(new RecentLinesSink(1), 10, OverflowPolicy.Drop))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static class CountingSink implements OrderEventSink {
+    private long events;
+    private long flushes;
+
+    @Override
+    public void write(OrderEvent event) {
+      events++;
+    }
+
+    @Override
+    public void flush() {
+      flushes++;
+    }
+  }
+
+  private static class StalledSink implements OrderEventSink {
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private long events;
+
+    @Override
+    public void write(OrderEvent event) {
+      events++;
+      entered.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package org.pancakelab.service.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.IncorrectOrderStatusException;
+import org.pancakelab.exception.LockTimeoutException;
+import org.pancakelab.model.Order;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ServiceMetricsTest {
+
+  @Test
+  void percentilesStayWithinTheBucketError() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long nanos = 1; nanos <= 100_000; nanos++) {
+      histogram.record(nanos * 1_000);
+    }
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.count()).isEqualTo(100_000);
+    assertThat((double) snapshot.p50Nanos()).isCloseTo(50_000_000, within(50_000_000 * 0.04));
+    assertThat((double) snapshot.p99Nanos()).isCloseTo(99_000_000, within(99_000_000 * 0.04));
+    assertThat((double) snapshot.p999Nanos()).isCloseTo(99_900_000, within(99_900_000 * 0.04));
+    assertThat(snapshot.maxNanos()).isEqualTo(100_000_000);
+    assertThat(snapshot.meanNanos()).isEqualTo(50_000_500);
+  }
+
+  @Test
+  void bucketsCoverEveryValueInOrder() {
+    int previous = -1;
+    for (long value : new long[] {0, 1, 31, 32, 33, 63, 64, 1_000, 1L << 20, (1L << 40) - 1}) {
+      int bucket = LatencyHistogram.bucket(value);
+      assertThat(bucket).isGreaterThan(previous).isLessThan(LatencyHistogram.BUCKETS);
+      assertThat(LatencyHistogram.highestValueIn(bucket)).isGreaterThanOrEqualTo(value);
+      previous = bucket;
+    }
+    assertThat(LatencyHistogram.bucket((1L << 40) - 1)).isEqualTo(LatencyHistogram.BUCKETS - 1);
+  }
+
+  @Test
+  void outlierBeyondTheTrackedRangeKeepsItsMax() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(Long.MAX_VALUE / 2);
+
+    assertThat(histogram.snapshot().p50Nanos()).isEqualTo(histogram.snapshot().maxNanos());
+  }
+
+  @Test
+  void countsOutcomesByFailureKind() {
+    ServiceMetrics metrics = ServiceMetrics.enabled();
+    long start = metrics.start();
+    metrics.succeeded(ServiceOperation.CompleteOrder, start, "ok");
+    metrics.failed(ServiceOperation.CompleteOrder, start,
+        new IncorrectOrderStatusException(UUID.randomUUID(), Order.Status.Pending, Order.Status.Prepared));
+    metrics.failed(ServiceOperation.CompleteOrder, start, new LockTimeoutException("key", Duration.ZERO));
+    metrics.failed(ServiceOperation.CompleteOrder, start, new UnsupportedOperationException());
+
+    OperationStats stats = metrics.snapshot().get(ServiceOperation.CompleteOrder);
+    assertThat(stats.calls()).isEqualTo(4);
+    assertThat(stats.successes()).isEqualTo(1);
+    assertThat(stats.failures()).isEqualTo(3);
+    assertThat(stats.outcomes()).containsOnlyKeys(
+        Outcome.Success, Outcome.IncorrectOrderStatus, Outcome.LockTimeout, Outcome.OtherFailure);
+    assertThat(metrics.snapshot().get(ServiceOperation.DeliverOrder).calls()).isZero();
+  }
+
+  @Test
+  void disabledMetricsRecordNothing() {
+    ServiceMetrics metrics = ServiceMetrics.disabled();
+    assertThat(metrics.start()).isZero();
+    assertThat(metrics.succeeded(ServiceOperation.StartOrder, 0, "result")).isEqualTo("result");
+    metrics.failed(ServiceOperation.StartOrder, 0, new IllegalStateException());
+
+    MetricsSnapshot snapshot = metrics.snapshot();
+    assertThat(snapshot.enabled()).isFalse();
+    assertThat(snapshot.operations()).isEmpty();
+  }
+
+  @Test
+  void concurrentRecordingLosesNothing() throws Exception {
+    ServiceMetrics metrics = ServiceMetrics.enabled();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < 50_000; i++) {
+          metrics.succeeded(ServiceOperation.ViewOrder, metrics.start(), null);
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    OperationStats stats = metrics.snapshot().get(ServiceOperation.ViewOrder);
+    assertThat(stats.calls()).isEqualTo(400_000);
+    assertThat(stats.successes()).isEqualTo(400_000);
+    assertThat(stats.callsPerSecond()).isPositive();
+  }
+}
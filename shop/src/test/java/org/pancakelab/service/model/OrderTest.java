@@ -0,0 +1,79 @@
+package org.pancakelab.service.model;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderTest {
+
+  private final Order order = new Order(new Address(1, 1));
+
+  @Test
+  void followsTheTransitionTable() {
+    assertThat(order.getStatus()).isEqualTo(Order.Status.Pending);
+    assertThat(order.getVersion()).isZero();
+
+    assertThat(order.compareAndSetStatus(Order.Status.Pending, Order.Status.Completed)).isTrue();
+    assertThat(order.compareAndSetStatus(Order.Status.Completed, Order.Status.Prepared)).isTrue();
+    assertThat(order.compareAndSetStatus(Order.Status.Prepared, Order.Status.Delivered)).isTrue();
+
+    assertThat(order.getStatus()).isEqualTo(Order.Status.Delivered);
+    assertThat(order.getVersion()).isEqualTo(3);
+  }
+
+  @Test
+  void staleExpectationLeavesTheOrderAlone() {
+    order.compareAndSetStatus(Order.Status.Pending, Order.Status.Cancelled);
+
+    assertThat(order.compareAndSetStatus(Order.Status.Pending, Order.Status.Completed)).isFalse();
+    assertThat(order.getStatus()).isEqualTo(Order.Status.Cancelled);
+    assertThat(order.getVersion()).isEqualTo(1);
+  }
+
+  @Test
+  void rejectsTransitionsOutsideTheTable() {
+    assertThatThrownBy(() -> order.compareAndSetStatus(Order.Status.Pending, Order.Status.Prepared))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> order.compareAndSetStatus(Order.Status.Delivered, Order.Status.Cancelled))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(order.getStatus()).isEqualTo(Order.Status.Pending);
+  }
+
+  @Test
+  void exactlyOneRacerWinsEachTransition() throws Exception {
+    int threads = 8;
+    for (int round = 0; round < 200; round++) {
+      Order contended = new Order(new Address(1, 1));
+      contended.compareAndSetStatus(Order.Status.Pending, Order.Status.Completed);
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Boolean>> attempts = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        Order.Status target = t % 2 == 0 ? Order.Status.Prepared : Order.Status.Cancelled;
+        attempts.add(executor.submit(() -> {
+          start.await();
+          return contended.compareAndSetStatus(Order.Status.Completed, target);
+        }));
+      }
+      start.countDown();
+      int winners = 0;
+      for (Future<Boolean> attempt : attempts) {
+        winners += attempt.get() ? 1 : 0;
+      }
+      executor.shutdown();
+
+      assertThat(winners).isEqualTo(1);
+      assertThat(contended.getVersion()).isEqualTo(2);
+    }
+  }
+}
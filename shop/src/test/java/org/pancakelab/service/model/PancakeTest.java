@@ -0,0 +1,79 @@
+package org.pancakelab.service.model;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.PackedIngredients;
+import org.pancakelab.model.Pancake;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PancakeTest {
+
+  private final Pancake pancake = new Pancake(UUID.randomUUID());
+
+  @Test
+  void newPancakeHasNoIngredients() {
+    assertThat(pancake.getIngredients()).isEmpty();
+    assertThat(pancake.getIngredientCount()).isZero();
+    assertThat(pancake.getPackedIngredients()).isEqualTo(PackedIngredients.EMPTY);
+    assertThat(pancake.getDescription()).isEqualTo("plain pancake");
+  }
+
+  @Test
+  void keepsIngredientsInTheOrderTheyWereAdded() {
+    pancake.addIngredient(Pancake.Ingredient.WhippedCream)
+        .addIngredient(Pancake.Ingredient.MilkChocolate)
+        .addIngredient(Pancake.Ingredient.WhippedCream);
+
+    assertThat(pancake.getIngredients()).containsExactly(
+        Pancake.Ingredient.WhippedCream, Pancake.Ingredient.MilkChocolate, Pancake.Ingredient.WhippedCream);
+    assertThat(pancake.getIngredientCount()).isEqualTo(3);
+    assertThat(pancake.getDescription())
+        .isEqualTo("Pancake with 3 ingredients: whipped cream, milk chocolate, whipped cream");
+  }
+
+  @Test
+  void pancakesWithTheSameRecipeShareOneDescription() {
+    Pancake other = new Pancake(UUID.randomUUID());
+    pancake.addIngredient(Pancake.Ingredient.DarkChocolate).addIngredient(Pancake.Ingredient.Hazelnuts);
+    other.addIngredient(Pancake.Ingredient.DarkChocolate).addIngredient(Pancake.Ingredient.Hazelnuts);
+
+    assertThat(other.getDescription()).isSameAs(pancake.getDescription());
+    assertThat(pancake.getDescription()).isSameAs(pancake.getDescription());
+  }
+
+  @Test
+  void addingAnIngredientChangesTheDescription() {
+    pancake.addIngredient(Pancake.Ingredient.DarkChocolate);
+    String before = pancake.getDescription();
+
+    pancake.addIngredient(Pancake.Ingredient.Hazelnuts);
+
+    assertThat(before).isEqualTo("Pancake with 1 ingredients: dark chocolate");
+    assertThat(pancake.getDescription()).isEqualTo("Pancake with 2 ingredients: dark chocolate, hazelnuts");
+  }
+
+  @Test
+  void restoresFromPackedForm() {
+    pancake.addIngredient(Pancake.Ingredient.Hazelnuts).addIngredient(Pancake.Ingredient.DarkChocolate);
+
+    Pancake restored = new Pancake(pancake.getId(), pancake.getOrderId(), pancake.getPackedIngredients());
+
+    assertThat(restored.getIngredients()).isEqualTo(pancake.getIngredients());
+  }
+
+  @Test
+  void rejectsIngredientsBeyondPackedCapacity() {
+    for (int i = 0; i < PackedIngredients.CAPACITY; i++) {
+      pancake.addIngredient(Pancake.Ingredient.values()[i % Pancake.Ingredient.values().length]);
+    }
+
+    assertThatThrownBy(() -> pancake.addIngredient(Pancake.Ingredient.Hazelnuts))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(pancake.getIngredientCount()).isEqualTo(PackedIngredients.CAPACITY);
+    assertThat(PackedIngredients.get(pancake.getPackedIngredients(), PackedIngredients.CAPACITY - 1))
+        .isEqualTo(Pancake.Ingredient.values()[(PackedIngredients.CAPACITY - 1) % Pancake.Ingredient.values().length]);
+  }
+}
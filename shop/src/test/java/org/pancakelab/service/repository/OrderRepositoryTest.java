@@ -0,0 +1,109 @@
+package org.pancakelab.service.repository;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Order;
+import org.pancakelab.repository.OrderRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderRepositoryTest {
+
+  private final OrderRepository orderRepository = new OrderRepository();
+
+  @Test
+  void listingsFollowTransitionOrder() {
+    Order first = newOrder();
+    Order second = newOrder();
+    Order third = newOrder();
+
+    transition(third, Order.Status.Completed);
+    transition(first, Order.Status.Completed);
+    transition(second, Order.Status.Completed);
+
+    assertThat(orderRepository.findCompleted()).containsExactly(third.getId(), first.getId(), second.getId());
+    assertThat(orderRepository.findPrepared()).isEmpty();
+
+    transition(first, Order.Status.Prepared);
+    transition(third, Order.Status.Prepared);
+
+    assertThat(orderRepository.findCompleted()).containsExactly(second.getId());
+    assertThat(orderRepository.findPrepared()).containsExactly(first.getId(), third.getId());
+  }
+
+  @Test
+  void savingWithoutStatusChangeKeepsQueuePosition() {
+    Order first = newOrder();
+    Order second = newOrder();
+    transition(first, Order.Status.Completed);
+    transition(second, Order.Status.Completed);
+
+    orderRepository.save(first);
+
+    assertThat(orderRepository.findCompleted()).containsExactly(first.getId(), second.getId());
+  }
+
+  @Test
+  void removedOrderLeavesStatusIndex() {
+    Order order = newOrder();
+    transition(order, Order.Status.Completed);
+
+    orderRepository.remove(order.getId());
+
+    assertThat(orderRepository.findCompleted()).isEmpty();
+    assertThat(orderRepository.findByStatus(Order.Status.Pending)).isEmpty();
+  }
+
+  @Test
+  void statusIndexMatchesOrdersUnderConcurrentTransitions() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<Order>> futures = new ArrayList<>();
+    for (int i = 0; i < 800; i++) {
+      int n = i;
+      futures.add(executor.submit(() -> {
+        Order order = newOrder();
+        transition(order, Order.Status.Completed);
+        if (n % 2 == 0) {
+          transition(order, Order.Status.Prepared);
+        }
+        if (n % 4 == 0) {
+          orderRepository.remove(order.getId());
+        }
+        return order;
+      }));
+    }
+    List<Order> orders = new ArrayList<>();
+    for (Future<Order> future : futures) {
+      orders.add(future.get());
+    }
+    executor.shutdown();
+
+    List<UUID> completed = orderRepository.findAll().stream()
+        .filter(o -> o.getStatus() == Order.Status.Completed).map(Order::getId).toList();
+    List<UUID> prepared = orderRepository.findAll().stream()
+        .filter(o -> o.getStatus() == Order.Status.Prepared).map(Order::getId).toList();
+
+    assertThat(orderRepository.findAll()).hasSize(orders.size() * 3 / 4);
+    assertThat(orderRepository.findCompleted()).containsExactlyInAnyOrderElementsOf(completed).hasSize(400);
+    assertThat(orderRepository.findPrepared()).containsExactlyInAnyOrderElementsOf(prepared).hasSize(200);
+    assertThat(orderRepository.findByStatus(Order.Status.Pending)).isEmpty();
+  }
+
+  private Order newOrder() {
+    Order order = new Order(new Address(1, 1));
+    orderRepository.save(order);
+    return order;
+  }
+
+  private void transition(Order order, Order.Status status) {
+    assertThat(order.compareAndSetStatus(order.getStatus(), status)).isTrue();
+    orderRepository.save(order);
+  }
+}
@@ -0,0 +1,180 @@
+package org.pancakelab.service.repository;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.repository.PancakeRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PancakeRepositoryTest {
+
+  private final PancakeRepository pancakeRepository = new PancakeRepository();
+
+  @Test
+  void findByOrderIdReturnsOnlyPancakesOfThatOrder() {
+    UUID orderId = UUID.randomUUID();
+    Pancake first = new Pancake(orderId);
+    Pancake second = new Pancake(orderId);
+    pancakeRepository.save(first);
+    pancakeRepository.save(second);
+    pancakeRepository.save(new Pancake(UUID.randomUUID()));
+
+    assertThat(pancakeRepository.findByOrderId(orderId))
+        .containsExactlyInAnyOrder(first, second);
+  }
+
+  @Test
+  void findByOrderIdForUnknownOrderIsEmpty() {
+    assertThat(pancakeRepository.findByOrderId(UUID.randomUUID())).isEmpty();
+  }
+
+  @Test
+  void removedPancakeDisappearsFromIndex() {
+    UUID orderId = UUID.randomUUID();
+    Pancake pancake = new Pancake(orderId);
+    pancakeRepository.save(pancake);
+    pancakeRepository.save(pancake);
+
+    assertThat(pancakeRepository.remove(pancake.getId())).isEqualTo(pancake);
+    assertThat(pancakeRepository.remove(pancake.getId())).isNull();
+    assertThat(pancakeRepository.findByOrderId(orderId)).isEmpty();
+  }
+
+  @Test
+  void removeByOrderIdDropsAllPancakesOfTheOrder() {
+    UUID orderId = UUID.randomUUID();
+    Pancake first = new Pancake(orderId);
+    Pancake second = new Pancake(orderId);
+    Pancake other = new Pancake(UUID.randomUUID());
+    pancakeRepository.saveAll(List.of(first, second));
+    pancakeRepository.save(other);
+
+    assertThat(pancakeRepository.removeByOrderId(orderId)).containsExactlyInAnyOrder(first, second);
+    assertThat(pancakeRepository.removeByOrderId(orderId)).isEmpty();
+    assertThat(pancakeRepository.countByOrderId(orderId)).isZero();
+    assertThat(pancakeRepository.findAll()).containsExactly(other);
+  }
+
+  @Test
+  void updateNeverBringsBackARemovedPancakeOrOrder() {
+    UUID orderId = UUID.randomUUID();
+    Pancake first = new Pancake(orderId);
+    Pancake second = new Pancake(orderId);
+    pancakeRepository.saveAll(List.of(first, second));
+    pancakeRepository.remove(first.getId());
+
+    assertThat(pancakeRepository.update(first.addIngredient(Pancake.Ingredient.Hazelnuts))).isFalse();
+    assertThat(pancakeRepository.update(second.addIngredient(Pancake.Ingredient.Hazelnuts))).isTrue();
+    assertThat(pancakeRepository.findByOrderId(orderId)).containsExactly(second);
+
+    pancakeRepository.removeByOrderId(orderId);
+    assertThat(pancakeRepository.update(second.addIngredient(Pancake.Ingredient.DarkChocolate))).isFalse();
+    assertThat(pancakeRepository.countByOrderId(orderId)).isZero();
+    assertThat(pancakeRepository.findAll()).isEmpty();
+  }
+
+  @Test
+  void keepsPancakesOfAnOrderInTheOrderTheyWereAdded() {
+    UUID orderId = UUID.randomUUID();
+    Pancake first = new Pancake(orderId);
+    Pancake second = new Pancake(orderId);
+    Pancake third = new Pancake(orderId);
+    pancakeRepository.save(first);
+    pancakeRepository.saveAll(List.of(second, third));
+    pancakeRepository.save(second.addIngredient(Pancake.Ingredient.Hazelnuts));
+
+    assertThat(pancakeRepository.findByOrderId(orderId)).containsExactly(first, second, third);
+    assertThat(pancakeRepository.countByOrderId(orderId)).isEqualTo(3);
+  }
+
+  @Test
+  void batchReplacesPancakesAlreadyInTheOrder() {
+    UUID orderId = UUID.randomUUID();
+    Pancake first = new Pancake(orderId);
+    Pancake second = new Pancake(orderId);
+    pancakeRepository.save(first);
+    pancakeRepository.saveAll(List.of(second, first.addIngredient(Pancake.Ingredient.Hazelnuts), second));
+
+    assertThat(pancakeRepository.findByOrderId(orderId)).containsExactly(first, second);
+    assertThat(pancakeRepository.countByOrderId(orderId)).isEqualTo(2);
+  }
+
+  @Test
+  void listingIsASnapshotUnaffectedByLaterWrites() {
+    UUID orderId = UUID.randomUUID();
+    Pancake first = new Pancake(orderId);
+    Pancake second = new Pancake(orderId);
+    pancakeRepository.saveAll(List.of(first, second));
+
+    List<Pancake> listed = pancakeRepository.findByOrderId(orderId);
+    pancakeRepository.remove(first.getId());
+    pancakeRepository.save(new Pancake(orderId));
+
+    assertThat(listed).containsExactly(first, second);
+    assertThat(pancakeRepository.findByOrderId(orderId)).hasSize(2).doesNotContain(first);
+  }
+
+  @Test
+  void indexStaysConsistentUnderConcurrentWriters() throws Exception {
+    int threads = 8;
+    int ordersPerThread = 50;
+    int pancakesPerOrder = 10;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<List<UUID>>> results = new ArrayList<>();
+
+    // every writer shares the same orders so the index buckets are contended
+    List<UUID> orderIds = new ArrayList<>();
+    for (int i = 0; i < ordersPerThread; i++) {
+      orderIds.add(UUID.randomUUID());
+    }
+
+    for (int t = 0; t < threads; t++) {
+      results.add(executor.submit(() -> {
+        start.await();
+        List<UUID> kept = new ArrayList<>();
+        for (UUID orderId : orderIds) {
+          for (int p = 0; p < pancakesPerOrder; p++) {
+            Pancake pancake = new Pancake(orderId);
+            pancakeRepository.save(pancake);
+            if (p % 2 == 0) {
+              pancakeRepository.remove(pancake.getId());
+            } else {
+              kept.add(pancake.getId());
+            }
+          }
+        }
+        return kept;
+      }));
+    }
+    start.countDown();
+
+    List<UUID> expected = new ArrayList<>();
+    for (Future<List<UUID>> result : results) {
+      expected.addAll(result.get());
+    }
+    executor.shutdown();
+
+    assertThat(pancakeRepository.findAll()).hasSize(expected.size());
+    for (UUID orderId : orderIds) {
+      assertThat(pancakeRepository.findByOrderId(orderId))
+          .hasSize(threads * pancakesPerOrder / 2)
+          .allMatch(p -> p.getOrderId().equals(orderId));
+    }
+    assertThat(orderIds.stream().flatMap(id -> pancakeRepository.findByOrderId(id).stream()).map(Pancake::getId))
+        .containsExactlyInAnyOrderElementsOf(expected);
+
+    expected.forEach(pancakeRepository::remove);
+    for (UUID orderId : orderIds) {
+      assertThat(pancakeRepository.findByOrderId(orderId)).isEmpty();
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package org.pancakelab.service.repository.durable;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.Address;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.repository.durable.DurableRepository;
+import org.pancakelab.repository.durable.OrderCodec;
+import org.pancakelab.repository.durable.PancakeCodec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.AssertionsForClassTypes.tuple;
+
+class DurableRepositoryTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void recoversSavedAndRemovedOrdersFromTheLog() {
+    Order kept = new Order(new Address(1, 2));
+    Order removed = new Order(new Address(3, 4));
+    try (DurableRepository<Order> repository = new DurableRepository<>(directory, new OrderCodec())) {
+      repository.save(kept);
+      repository.save(removed);
+      kept.compareAndSetStatus(Order.Status.Pending, Order.Status.Completed);
+      repository.save(kept);
+      repository.remove(removed.getId());
+    }
+
+    try (DurableRepository<Order> repository = new DurableRepository<>(directory, new OrderCodec())) {
+      assertThat(repository.findAll())
+          .extracting(Order::getId, Order::getAddress, Order::getStatus)
+          .containsExactly(tuple(kept.getId(), new Address(1, 2), Order.Status.Completed));
+    }
+  }
+
+  @Test
+  void snapshotCompactsTheLog() throws IOException {
+    List<Order> orders = new ArrayList<>();
+    try (DurableRepository<Order> repository = new DurableRepository<>(directory, new OrderCodec())) {
+      for (int i = 0; i < 100; i++) {
+        Order order = new Order(new Address(1, 1));
+        repository.save(order);
+        orders.add(order);
+      }
+      repository.snapshot();
+      orders.subList(0, 50).forEach(o -> repository.remove(o.getId()));
+      repository.snapshot();
+      Order late = new Order(new Address(2, 2));
+      repository.save(late);
+      orders.add(late);
+    }
+
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files.map(p -> p.getFileName().toString()))
+          .filteredOn(name -> name.startsWith("snapshot-"))
+          .hasSize(1);
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files.map(p -> p.getFileName().toString()))
+          .filteredOn(name -> name.startsWith("wal-"))
+          .hasSize(1);
+    }
+    try (DurableRepository<Order> repository = new DurableRepository<>(directory, new OrderCodec())) {
+      assertThat(repository.findAll())
+          .extracting(Order::getId)
+          .containsExactlyInAnyOrderElementsOf(orders.subList(50, orders.size()).stream().map(Order::getId).toList());
+    }
+  }
+
+  @Test
+  void ignoresTornRecordAtTheEndOfTheLog() throws IOException {
+    Order order = new Order(new Address(5, 5));
+    try (DurableRepository<Order> repository = new DurableRepository<>(directory, new OrderCodec())) {
+      repository.save(order);
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      Path wal = files.filter(p -> p.getFileName().toString().startsWith("wal-")).findFirst().orElseThrow();
+      Files.write(wal, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+    }
+
+    try (DurableRepository<Order> repository = new DurableRepository<>(directory, new OrderCodec())) {
+      assertThat(repository.find(order.getId())).isPresent();
+      Order next = new Order(new Address(6, 6));
+      repository.save(next);
+    }
+    try (DurableRepository<Order> repository = new DurableRepository<>(directory, new OrderCodec())) {
+      assertThat(repository.findAll()).hasSize(2);
+    }
+  }
+
+  @Test
+  void concurrentWritersShareGroupCommits() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    List<Future<UUID>> futures = new ArrayList<>();
+    try (DurableRepository<Order> repository = new DurableRepository<>(directory, new OrderCodec())) {
+      for (int i = 0; i < 2000; i++) {
+        futures.add(executor.submit(() -> {
+          Order order = new Order(new Address(1, 1));
+          repository.save(order);
+          return order.getId();
+        }));
+        if (i == 1000) {
+          executor.submit(repository::snapshot);
+        }
+      }
+      for (Future<UUID> future : futures) {
+        future.get();
+      }
+    }
+    executor.shutdown();
+
+    try (DurableRepository<Order> repository = new DurableRepository<>(directory, new OrderCodec())) {
+      assertThat(repository.findAll()).hasSize(2000);
+    }
+  }
+
+  @Test
+  void indexedRepositoriesRebuildFromDurableStore() {
+    Order order = new Order(new Address(9, 9));
+    Pancake pancake = new Pancake(order.getId());
+    try (DurableRepository<Order> orders = new DurableRepository<>(directory.resolve("orders"), new OrderCodec());
+         DurableRepository<Pancake> pancakes = new DurableRepository<>(directory.resolve("pancakes"), new PancakeCodec())) {
+      OrderRepository orderRepository = new OrderRepository(orders);
+      PancakeRepository pancakeRepository = new PancakeRepository(pancakes);
+      orderRepository.save(order);
+      pancakeRepository.save(pancake);
+      pancake.addIngredient(Pancake.Ingredient.Hazelnuts).addIngredient(Pancake.Ingredient.WhippedCream);
+      pancakeRepository.save(pancake);
+      order.compareAndSetStatus(Order.Status.Pending, Order.Status.Completed);
+      orderRepository.save(order);
+    }
+
+    try (DurableRepository<Order> orders = new DurableRepository<>(directory.resolve("orders"), new OrderCodec());
+         DurableRepository<Pancake> pancakes = new DurableRepository<>(directory.resolve("pancakes"), new PancakeCodec())) {
+      OrderRepository orderRepository = new OrderRepository(orders);
+      PancakeRepository pancakeRepository = new PancakeRepository(pancakes);
+      assertThat(orderRepository.findCompleted()).containsExactly(order.getId());
+      assertThat(pancakeRepository.findByOrderId(order.getId()))
+          .extracting(Pancake::getDescription)
+          .containsExactly("Pancake with 2 ingredients: hazelnuts, whipped cream");
+    }
+  }
+
+  @Test
+  void concurrentSavesOfOneOrderRecoverTheValueLeftInMemory() throws Exception {
+    UUID orderId = UUID.randomUUID();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    Address inMemory;
+    try (DurableRepository<Order> repository = new DurableRepository<>(directory, new OrderCodec())) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 2000; i++) {
+        Address address = new Address(i % 100 + 1, i % 37 + 1);
+        futures.add(executor.submit(() -> repository.save(new Order(orderId, address, Order.Status.Pending))));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      inMemory = repository.find(orderId).orElseThrow().getAddress();
+    }
+    executor.shutdown();
+
+    try (DurableRepository<Order> repository = new DurableRepository<>(directory, new OrderCodec())) {
+      assertThat(repository.find(orderId)).map(Order::getAddress).contains(inMemory);
+    }
+  }
+
+  @Test
+  void writesAfterCloseFailInsteadOfWaitingForever() {
+    DurableRepository<Order> repository = new DurableRepository<>(directory, new OrderCodec());
+    Order order = new Order(new Address(1, 1));
+    repository.save(order);
+    repository.close();
+
+    assertThatThrownBy(() -> repository.save(new Order(new Address(2, 2))))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> repository.remove(order.getId()))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(repository::snapshot)
+        .isInstanceOf(IllegalStateException.class);
+    repository.close();
+  }
+}
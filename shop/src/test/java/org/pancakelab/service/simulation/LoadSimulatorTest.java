@@ -0,0 +1,57 @@
+package org.pancakelab.service.simulation;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.service.metrics.ServiceOperation;
+import org.pancakelab.simulation.LoadSimulator;
+import org.pancakelab.simulation.SimulationConfig;
+import org.pancakelab.simulation.SimulationReport;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoadSimulatorTest {
+
+  @Test
+  void deliversEveryCompletedOrderByTheEndOfTheRun() throws InterruptedException {
+    SimulationConfig config = new SimulationConfig(8, 2, 2, Duration.ofMillis(300), 0.2, 3, 4, 16, Duration.ZERO);
+
+    SimulationReport report = new LoadSimulator(config).run();
+
+    assertThat(report.started()).isPositive();
+    assertThat(report.failures()).isZero();
+    assertThat(report.completed() + report.cancelled()).isEqualTo(report.started());
+    assertThat(report.prepared()).isEqualTo(report.completed());
+    assertThat(report.delivered()).isEqualTo(report.prepared());
+    assertThat(report.inFlight()).isZero();
+    assertThat(report.trips()).isBetween(1L, report.delivered());
+    assertThat(report.endToEnd().count()).isEqualTo(report.delivered());
+    assertThat(report.kitchenQueue().max()).isLessThanOrEqualTo(16);
+    assertThat(report.serviceMetrics().get(ServiceOperation.StartOrder).calls()).isEqualTo(report.started());
+    assertThat(report.format()).contains("delivered", "end-to-end latency", "CompleteOrder");
+  }
+
+  @Test
+  void parsesCommandLineOverrides() {
+    SimulationConfig config = SimulationConfig.fromArgs(
+        "--disciples=100", "--chefs=3", "--duration=2m", "--cancel-rate=0.5", "--preparation-time=15ms");
+
+    assertThat(config.disciples()).isEqualTo(100);
+    assertThat(config.chefs()).isEqualTo(3);
+    assertThat(config.couriers()).isEqualTo(SimulationConfig.DEFAULT.couriers());
+    assertThat(config.duration()).isEqualTo(Duration.ofMinutes(2));
+    assertThat(config.cancelRate()).isEqualTo(0.5);
+    assertThat(config.preparationTime()).isEqualTo(Duration.ofMillis(15));
+  }
+
+  @Test
+  void rejectsUnknownAndInvalidArguments() {
+    assertThatThrownBy(() -> SimulationConfig.fromArgs("--waiters=3"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> SimulationConfig.fromArgs("--chefs=0"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> SimulationConfig.fromArgs("--cancel-rate=2"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
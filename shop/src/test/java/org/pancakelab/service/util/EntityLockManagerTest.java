@@ -0,0 +1,174 @@
+package org.pancakelab.service.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pancakelab.exception.LockTimeoutException;
+import org.pancakelab.util.EntityLockManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EntityLockManagerTest {
+
+  private static final int THREADS = 16;
+  private static final int KEYS = 32;
+  private static final int ITERATIONS = 20_000;
+
+  static Stream<Arguments> lockManagers() {
+    return Stream.of(
+        Arguments.of("per key", EntityLockManager.<UUID>perKey()),
+        Arguments.of("striped", EntityLockManager.<UUID>striped(64)),
+        Arguments.of("single stripe", EntityLockManager.<UUID>striped(1)));
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("lockManagers")
+  void keepsUpdatesOfTheSameKeyExclusiveUnderContention(String name, EntityLockManager<UUID> lockManager) throws Exception {
+    List<UUID> keys = new ArrayList<>();
+    for (int i = 0; i < KEYS; i++) {
+      keys.add(UUID.randomUUID());
+    }
+    long[] counters = new long[KEYS];
+
+    runContended(() -> {
+      for (int i = 0; i < ITERATIONS; i++) {
+        int k = i % KEYS;
+        lockManager.withLock(keys.get(k), key -> counters[k]++);
+      }
+    });
+
+    for (long counter : counters) {
+      assertThat(counter).isEqualTo((long) THREADS * ITERATIONS / KEYS);
+    }
+  }
+
+  @Test
+  void stripedTableStaysExclusiveWhileLocksAreRemoved() throws Exception {
+    EntityLockManager<UUID> lockManager = EntityLockManager.striped(8);
+    UUID key = UUID.randomUUID();
+    long[] counter = new long[1];
+
+    runContended(() -> {
+      for (int i = 0; i < ITERATIONS; i++) {
+        lockManager.withLock(key, k -> counter[0]++);
+        lockManager.removeLock(key);
+      }
+    });
+
+    assertThat(counter[0]).isEqualTo((long) THREADS * ITERATIONS);
+  }
+
+  @Test
+  void stripedTableHasConstantSize() throws Exception {
+    EntityLockManager<UUID> striped = EntityLockManager.striped(100);
+    EntityLockManager<UUID> perKey = EntityLockManager.perKey();
+
+    for (int i = 0; i < 10_000; i++) {
+      UUID key = UUID.randomUUID();
+      striped.withLock(key, k -> k);
+      perKey.withLock(key, k -> k);
+    }
+
+    assertThat(striped.size()).isEqualTo(128);
+    assertThat(perKey.size()).isEqualTo(10_000);
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("lockManagers")
+  void tryWithLockFailsFastWhileKeyIsHeld(String name, EntityLockManager<UUID> lockManager) throws Exception {
+    UUID key = UUID.randomUUID();
+    CountDownLatch held = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<?> holder = executor.submit(() -> lockManager.withLock(key, k -> {
+      held.countDown();
+      awaitQuietly(release);
+      return null;
+    }));
+    held.await();
+
+    assertThatThrownBy(() -> lockManager.tryWithLock(key, k -> k))
+        .isInstanceOf(LockTimeoutException.class);
+    assertThatThrownBy(() -> lockManager.withLock(key, Duration.ofMillis(20), k -> k))
+        .isInstanceOf(LockTimeoutException.class)
+        .hasMessageContaining("20 ms");
+
+    release.countDown();
+    holder.get();
+    executor.shutdown();
+    UUID tried = lockManager.tryWithLock(key, k -> k);
+    UUID timed = lockManager.withLock(key, Duration.ofMillis(20), k -> k);
+    assertThat(tried).isEqualTo(key);
+    assertThat(timed).isEqualTo(key);
+  }
+
+  @Test
+  void lockIsReentrant() throws Exception {
+    EntityLockManager<UUID> lockManager = EntityLockManager.striped(1);
+    UUID key = UUID.randomUUID();
+
+    UUID nested = lockManager.withLock(key, k -> lockManager.tryWithLock(UUID.randomUUID(), other -> k));
+    assertThat(nested).isEqualTo(key);
+  }
+
+  @Test
+  void unlockedManagerRunsActionsWithoutATable() throws Exception {
+    EntityLockManager<UUID> lockManager = EntityLockManager.unlocked();
+    UUID key = UUID.randomUUID();
+
+    UUID nested = lockManager.withLock(key, k -> lockManager.tryWithLock(k, same -> same));
+    UUID timed = lockManager.withLock(key, Duration.ofMillis(20), k -> k);
+    assertThat(nested).isEqualTo(key);
+    assertThat(timed).isEqualTo(key);
+    assertThat(lockManager.size()).isZero();
+  }
+
+  @Test
+  void rejectsEmptyStripeTable() {
+    assertThatThrownBy(() -> EntityLockManager.striped(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private void runContended(Work work) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        work.run();
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @FunctionalInterface
+  private interface Work {
+    void run() throws Exception;
+  }
+}
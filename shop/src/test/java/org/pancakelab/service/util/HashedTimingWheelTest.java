@@ -0,0 +1,111 @@
+package org.pancakelab.service.util;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.util.HashedTimingWheel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashedTimingWheelTest {
+
+  private static final long TICK = 10;
+
+  private final HashedTimingWheel<String, Integer> wheel = new HashedTimingWheel<>(TICK, 8, 0);
+  private final List<String> fired = new ArrayList<>();
+
+  @Test
+  void firesAtTheFirstTickAfterTheDeadline() {
+    wheel.schedule("a", 1, 25);
+    wheel.schedule("b", 2, 30);
+
+    assertThat(advance(29)).isEmpty();
+    assertThat(advance(30)).containsExactlyInAnyOrder("a", "b");
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  void reschedulingReplacesTheDeadline() {
+    wheel.schedule("a", 1, 20);
+    advance(15);
+    wheel.schedule("a", 2, 60);
+
+    assertThat(advance(50)).isEmpty();
+    assertThat(wheel.size()).isEqualTo(1);
+    assertThat(advance(60)).containsExactly("a");
+  }
+
+  @Test
+  void cancelledTimersNeverFire() {
+    wheel.schedule("a", 1, 20);
+    wheel.schedule("b", 1, 20);
+
+    assertThat(wheel.cancel("a")).isTrue();
+    assertThat(wheel.cancel("a")).isFalse();
+    assertThat(advance(100)).containsExactly("b");
+  }
+
+  @Test
+  void deadlinesBeyondOneTurnWaitForTheirTurn() {
+    long far = 8 * TICK * 3 + 5;
+    wheel.schedule("far", 1, far);
+    wheel.schedule("near", 1, 5);
+
+    List<String> firedEarly = new ArrayList<>();
+    for (long now = 0; now < far; now += TICK) {
+      firedEarly.addAll(advance(now));
+    }
+
+    assertThat(firedEarly).containsExactly("near");
+    assertThat(advance(far + TICK - 5)).containsExactly("far");
+  }
+
+  @Test
+  void longPauseFiresEverythingDueAndKeepsTheRest() {
+    for (int i = 0; i < 20; i++) {
+      wheel.schedule("t" + i, i, i * TICK * 5L);
+    }
+
+    advance(500);
+
+    assertThat(fired).hasSize(11);
+    assertThat(wheel.size()).isEqualTo(9);
+    assertThat(advance(1000)).hasSize(9);
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  void deadlinesInThePastFireOnTheNextTick() {
+    advance(100);
+    wheel.schedule("late", 1, 50);
+
+    assertThat(advance(109)).isEmpty();
+    assertThat(advance(110)).containsExactly("late");
+  }
+
+  @Test
+  void callbacksMayRescheduleTimers() {
+    wheel.schedule("a", 1, 10);
+
+    wheel.advance(10, (key, value) -> wheel.schedule(key, value + 1, 40));
+
+    assertThat(wheel.size()).isEqualTo(1);
+    List<Integer> values = new ArrayList<>();
+    wheel.advance(40, (key, value) -> values.add(value));
+    assertThat(values).containsExactly(2);
+  }
+
+  @Test
+  void rejectsNonPositiveTick() {
+    assertThatThrownBy(() -> new HashedTimingWheel<String, String>(0, 8, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private List<String> advance(long now) {
+    fired.clear();
+    wheel.advance(now, (key, value) -> fired.add(key));
+    return fired;
+  }
+}
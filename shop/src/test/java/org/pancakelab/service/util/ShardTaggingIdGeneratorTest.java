@@ -0,0 +1,39 @@
+package org.pancakelab.service.util;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.util.ShardTaggingIdGenerator;
+import org.pancakelab.util.TimeOrderedIdGenerator;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardTaggingIdGeneratorTest {
+
+  @Test
+  void idsRouteBackToTheirShard() {
+    for (int shard = 0; shard < 16; shard++) {
+      ShardTaggingIdGenerator generator = new ShardTaggingIdGenerator(new TimeOrderedIdGenerator(), shard);
+      for (int i = 0; i < 100; i++) {
+        UUID id = generator.next();
+        assertThat(ShardTaggingIdGenerator.shardOf(id, 16)).isEqualTo(shard);
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+      }
+    }
+  }
+
+  @Test
+  void foreignIdsStillMapToAShard() {
+    for (int i = 0; i < 100; i++) {
+      assertThat(ShardTaggingIdGenerator.shardOf(UUID.randomUUID(), 5)).isBetween(0, 4);
+    }
+  }
+
+  @Test
+  void rejectsShardOutsideTheTag() {
+    assertThatThrownBy(() -> new ShardTaggingIdGenerator(UUID::randomUUID, ShardTaggingIdGenerator.MAX_SHARDS))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,67 @@
+package org.pancakelab.service.util;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.util.TimeOrderedIdGenerator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedIdGeneratorTest {
+
+  private static final Comparator<UUID> UNSIGNED_ORDER = Comparator
+      .comparing((UUID id) -> id.getMostSignificantBits(), Long::compareUnsigned)
+      .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+  private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+
+  @Test
+  void producesVersion7Ids() {
+    long before = System.currentTimeMillis();
+    UUID id = generator.next();
+
+    assertThat(id.version()).isEqualTo(7);
+    assertThat(id.variant()).isEqualTo(2);
+    assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, System.currentTimeMillis() + 1);
+  }
+
+  @Test
+  void idsFromOneThreadAreStrictlyIncreasing() {
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      ids.add(generator.next());
+    }
+
+    assertThat(ids).isSortedAccordingTo(UNSIGNED_ORDER).doesNotHaveDuplicates();
+  }
+
+  @Test
+  void idsAreUniqueAcrossThreads() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<List<UUID>>> futures = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      futures.add(executor.submit(() -> {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+          ids.add(generator.next());
+        }
+        return ids;
+      }));
+    }
+    Set<UUID> all = new HashSet<>();
+    for (Future<List<UUID>> future : futures) {
+      all.addAll(future.get());
+    }
+    executor.shutdown();
+
+    assertThat(all).hasSize(8 * 50_000);
+  }
+}
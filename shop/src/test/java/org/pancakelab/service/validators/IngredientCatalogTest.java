@@ -0,0 +1,133 @@
+package org.pancakelab.service.validators;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.PackedIngredients;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.validators.IngredientCatalog;
+import org.pancakelab.validators.PancakeValidator;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+class IngredientCatalogTest {
+
+  private static final String CATALOG = """
+      max-ingredients=4
+      ingredients=MilkChocolate,DarkChocolate,WhippedCream
+      max.WhippedCream=2
+      incompatible.DarkChocolate=MilkChocolate
+      """;
+
+  @Test
+  void standardCatalogAllowsAnyFiveIngredients() {
+    IngredientCatalog catalog = IngredientCatalog.standard();
+
+    assertDoesNotThrow(() -> catalog.check(recipe(Pancake.Ingredient.MilkChocolate, Pancake.Ingredient.DarkChocolate,
+        Pancake.Ingredient.WhippedCream, Pancake.Ingredient.WhippedCream, Pancake.Ingredient.WhippedCream)));
+    assertThatThrownBy(() -> catalog.check(recipe(Pancake.Ingredient.Hazelnuts, Pancake.Ingredient.Hazelnuts,
+        Pancake.Ingredient.Hazelnuts, Pancake.Ingredient.Hazelnuts, Pancake.Ingredient.Hazelnuts, Pancake.Ingredient.Hazelnuts)))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Pancake can't have more than 5 ingredients");
+  }
+
+  @Test
+  void loadedCatalogEnforcesItsRules() throws IOException {
+    IngredientCatalog catalog = IngredientCatalog.load(new StringReader(CATALOG));
+
+    assertThat(catalog.maxIngredients()).isEqualTo(4);
+    assertThat(catalog.serves(Pancake.Ingredient.Hazelnuts)).isFalse();
+    assertThat(catalog.compatible(Pancake.Ingredient.MilkChocolate, Pancake.Ingredient.DarkChocolate)).isFalse();
+    assertThat(catalog.maxQuantity(Pancake.Ingredient.WhippedCream)).isEqualTo(2);
+    assertThat(catalog.maxQuantity(Pancake.Ingredient.MilkChocolate)).isEqualTo(4);
+
+    assertDoesNotThrow(() -> catalog.check(recipe(Pancake.Ingredient.DarkChocolate, Pancake.Ingredient.WhippedCream,
+        Pancake.Ingredient.WhippedCream)));
+    assertThatThrownBy(() -> catalog.check(recipe(Pancake.Ingredient.Hazelnuts)))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("hazelnuts is not on the menu");
+    assertThatThrownBy(() -> catalog.check(recipe(Pancake.Ingredient.MilkChocolate, Pancake.Ingredient.DarkChocolate)))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("dark chocolate can't go on a pancake with milk chocolate");
+    assertThatThrownBy(() -> catalog.check(recipe(Pancake.Ingredient.WhippedCream, Pancake.Ingredient.MilkChocolate,
+        Pancake.Ingredient.WhippedCream, Pancake.Ingredient.WhippedCream)))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Pancake can't have more than 2 portions of whipped cream");
+    assertThatThrownBy(() -> catalog.check(recipe(Pancake.Ingredient.MilkChocolate, Pancake.Ingredient.MilkChocolate,
+        Pancake.Ingredient.MilkChocolate, Pancake.Ingredient.MilkChocolate, Pancake.Ingredient.MilkChocolate)))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Pancake can't have more than 4 ingredients");
+  }
+
+  @Test
+  void rejectsMalformedCatalogs() {
+    assertThatThrownBy(() -> IngredientCatalog.load(new StringReader("max-ingredients=3")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Catalog doesn't list its ingredients");
+    assertThatThrownBy(() -> IngredientCatalog.load(new StringReader("ingredients=Mustard")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Unknown ingredient in catalog: Mustard");
+    assertThatThrownBy(() -> IngredientCatalog.load(new StringReader("ingredients=Hazelnuts\nmax-ingredients=8")))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> IngredientCatalog.load(new StringReader("ingredients=Hazelnuts\ntoppings=Hazelnuts")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Unknown catalog entry: toppings");
+  }
+
+  @Test
+  void validatorSwapsCatalogsUnderTraffic() throws Exception {
+    IngredientCatalog strict = IngredientCatalog.load(new StringReader("ingredients=Hazelnuts\nmax-ingredients=1"));
+    PancakeValidator validator = new PancakeValidator();
+    long hazelnuts = recipe(Pancake.Ingredient.Hazelnuts);
+    long twoIngredients = recipe(Pancake.Ingredient.Hazelnuts, Pancake.Ingredient.WhippedCream);
+    AtomicBoolean running = new AtomicBoolean(true);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<Long>> checkers = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      checkers.add(executor.submit(() -> {
+        long checks = 0;
+        do {
+          validator.validateIngredients(hazelnuts);
+          checks++;
+        } while (running.get());
+        return checks;
+      }));
+    }
+
+    for (int i = 0; i < 1000; i++) {
+      validator.useCatalog(i % 2 == 0 ? strict : IngredientCatalog.standard());
+    }
+    validator.useCatalog(strict);
+    running.set(false);
+    for (Future<Long> checker : checkers) {
+      assertThat(checker.get()).isPositive();
+    }
+    executor.shutdown();
+
+    assertThat(validator.catalog()).isSameAs(strict);
+    assertThatThrownBy(() -> validator.validateIngredients(twoIngredients))
+        .isInstanceOf(IllegalStateException.class);
+    Pancake pancake = new Pancake(UUID.randomUUID()).addIngredient(Pancake.Ingredient.WhippedCream);
+    assertThatThrownBy(() -> validator.validate(pancake))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("whipped cream is not on the menu");
+  }
+
+  private static long recipe(Pancake.Ingredient... ingredients) {
+    long packed = PackedIngredients.EMPTY;
+    for (Pancake.Ingredient ingredient : ingredients) {
+      packed = PackedIngredients.add(packed, ingredient);
+    }
+    return packed;
+  }
+}
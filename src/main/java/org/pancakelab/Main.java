@@ -1,7 +0,0 @@
-package org.pancakelab;
-
-public class Main {
-    public static void main(String[] args) {
-        System.out.println("Hello world!");
-    }
-}
\ No newline at end of file